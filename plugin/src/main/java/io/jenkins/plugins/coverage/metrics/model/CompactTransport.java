@@ -0,0 +1,331 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import edu.hm.hafner.coverage.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import hudson.remoting.ClassFilter;
+import hudson.remoting.ObjectInputStreamEx;
+
+/**
+ * A compact and versioned binary envelope for objects that are transferred between agents and the controller, e.g.,
+ * {@link Node coverage trees} or the inputs of the source code painter. Plain Java serialization stores every equal
+ * string of a tree (paths, package, class, and method names) again and boxes every per-line counter. This envelope
+ * improves the encoding in the following ways:
+ *
+ * <ul>
+ *     <li>Equal strings and integers are replaced by a canonical instance, so that the serialization writes each
+ *     value only once and uses back references for all other occurrences (i.e., a string table).</li>
+ *     <li>Per-line counters ({@link TreeMap} of integers) and line sets ({@link TreeSet} of integers) are written as
+ *     delta and varint encoded byte arrays. Only instances of exactly these classes are packed, subclasses are
+ *     serialized unchanged.</li>
+ *     <li>The serialized stream is deflated.</li>
+ * </ul>
+ *
+ * <p>
+ * The envelope starts with a header that contains a magic number and the format version, so that future versions of
+ * the format can be detected and rejected. The envelope is a wire format for the remoting channel only: agent and
+ * controller always run the same plugin version. Files in the build folders must not use this envelope, they are
+ * written with their own schema (see {@code CoverageXmlStream}, {@code CoverageBinaryStream}, and
+ * {@code LineDataStore}).
+ * </p>
+ *
+ * @param <T>
+ *         the type of the transferred object
+ */
+public final class CompactTransport<T extends Serializable> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5282476416478215733L;
+
+    static final int MAGIC = 0x434F5654; // "COVT"
+    static final int VERSION = 1;
+
+    private final byte[] data;
+
+    /**
+     * Encodes the specified object into a new envelope.
+     *
+     * @param value
+     *         the object to encode
+     * @param <T>
+     *         the type of the object
+     *
+     * @return the envelope
+     */
+    public static <T extends Serializable> CompactTransport<T> of(final T value) {
+        try {
+            return new CompactTransport<>(encode(value));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException("Cannot encode " + value.getClass().getName(), exception);
+        }
+    }
+
+    /**
+     * Restores an envelope from the bytes that have been obtained by {@link #toByteArray()}.
+     *
+     * @param data
+     *         the encoded object
+     * @param <T>
+     *         the type of the object
+     *
+     * @return the envelope
+     */
+    public static <T extends Serializable> CompactTransport<T> fromByteArray(final byte[] data) {
+        return new CompactTransport<>(data.clone());
+    }
+
+    private CompactTransport(final byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Decodes the transferred object. Each invocation creates a new instance of the object.
+     *
+     * @return the decoded object
+     * @throws IllegalStateException
+     *         if the envelope cannot be decoded
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        try {
+            return (T) decode(data);
+        }
+        catch (IOException | ClassNotFoundException exception) {
+            throw new IllegalStateException("Cannot decode coverage transport envelope", exception);
+        }
+    }
+
+    /**
+     * Returns the size of the encoded object in bytes.
+     *
+     * @return the size of the encoded object
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Returns the encoded object, including the header of the envelope.
+     *
+     * @return the encoded object
+     */
+    public byte[] toByteArray() {
+        return data.clone();
+    }
+
+    static byte[] encode(final Serializable value) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var header = new DataOutputStream(bytes)) {
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            var deflater = new Deflater(Deflater.BEST_SPEED);
+            try (var output = new CompactObjectOutputStream(new DeflaterOutputStream(header, deflater))) {
+                output.writeObject(value);
+            }
+            finally {
+                deflater.end();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static Object decode(final byte[] encoded) throws IOException, ClassNotFoundException {
+        var input = new DataInputStream(new ByteArrayInputStream(encoded));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Data is not a coverage transport envelope");
+        }
+        var version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of coverage transport envelope: " + version);
+        }
+        try (ObjectInputStream objects = new ObjectInputStreamEx(new InflaterInputStream(input),
+                CompactTransport.class.getClassLoader(), ClassFilter.DEFAULT)) {
+            return objects.readObject();
+        }
+    }
+
+    /**
+     * An object output stream that replaces equal strings and integers with canonical instances and packs
+     * integer maps and sets.
+     */
+    private static final class CompactObjectOutputStream extends ObjectOutputStream {
+        private final Map<Object, Object> canonicalValues = new HashMap<>();
+
+        CompactObjectOutputStream(final OutputStream output) throws IOException {
+            super(output);
+
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+            if (obj instanceof String || obj instanceof Integer) {
+                return canonicalValues.computeIfAbsent(obj, k -> k);
+            }
+            // subclasses are serialized as they are, since the packed forms are restored as plain instances
+            if (obj.getClass() == TreeMap.class && PackedIntegerMap.canPack((TreeMap<?, ?>) obj)) {
+                return new PackedIntegerMap((TreeMap<?, ?>) obj);
+            }
+            if (obj.getClass() == TreeSet.class && PackedIntegerSet.canPack((TreeSet<?>) obj)) {
+                return new PackedIntegerSet((TreeSet<?>) obj);
+            }
+            return obj;
+        }
+    }
+
+    /**
+     * Packed representation of a {@link TreeMap} that maps integers to integers. The keys are stored as deltas to the
+     * previous key, all values are varint encoded.
+     */
+    static final class PackedIntegerMap implements Serializable {
+        @Serial
+        private static final long serialVersionUID = -1390451207453214563L;
+
+        private final byte[] entries;
+
+        static boolean canPack(final TreeMap<?, ?> map) {
+            if (map.comparator() != null) {
+                return false;
+            }
+            for (Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof Integer) || !(entry.getValue() instanceof Integer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        PackedIntegerMap(final TreeMap<?, ?> map) {
+            var output = new VarIntOutput();
+            output.write(map.size());
+            int previous = 0;
+            for (Entry<?, ?> entry : map.entrySet()) {
+                int key = (Integer) entry.getKey();
+                output.write(key - previous);
+                output.write((Integer) entry.getValue());
+                previous = key;
+            }
+            entries = output.toByteArray();
+        }
+
+        @Serial
+        private Object readResolve() {
+            var input = new VarIntInput(entries);
+            NavigableMap<Integer, Integer> map = new TreeMap<>();
+            int size = input.read();
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                int key = previous + input.read();
+                map.put(key, input.read());
+                previous = key;
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Packed representation of a {@link TreeSet} of integers. The elements are stored as varint encoded deltas to the
+     * previous element.
+     */
+    static final class PackedIntegerSet implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 6104434839925862376L;
+
+        private final byte[] elements;
+
+        static boolean canPack(final TreeSet<?> set) {
+            return set.comparator() == null && set.stream().allMatch(Integer.class::isInstance);
+        }
+
+        PackedIntegerSet(final TreeSet<?> set) {
+            var output = new VarIntOutput();
+            output.write(set.size());
+            int previous = 0;
+            for (Object element : set) {
+                int value = (Integer) element;
+                output.write(value - previous);
+                previous = value;
+            }
+            elements = output.toByteArray();
+        }
+
+        @Serial
+        private Object readResolve() {
+            var input = new VarIntInput(elements);
+            NavigableSet<Integer> set = new TreeSet<>();
+            int size = input.read();
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += input.read();
+                set.add(previous);
+            }
+            return set;
+        }
+    }
+
+    /**
+     * Writes zig-zag and varint encoded integers, so that small absolute values require only a single byte.
+     */
+    static final class VarIntOutput {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        void write(final int value) {
+            int encoded = (value << 1) ^ (value >> 31);
+            while ((encoded & ~0x7F) != 0) {
+                output.write((encoded & 0x7F) | 0x80);
+                encoded >>>= 7;
+            }
+            output.write(encoded);
+        }
+
+        byte[] toByteArray() {
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Reads integers that have been written by {@link VarIntOutput}.
+     */
+    static final class VarIntInput {
+        private final byte[] input;
+        private int position;
+
+        VarIntInput(final byte[] input) {
+            this.input = input;
+        }
+
+        int read() {
+            int encoded = 0;
+            int shift = 0;
+            int current;
+            do {
+                current = input[position++];
+                encoded |= (current & 0x7F) << shift;
+                shift += 7;
+            }
+            while ((current & 0x80) != 0);
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import edu.hm.hafner.coverage.FileNode;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The covered and missed items per line of a file, stored as packed primitive arrays: the sorted line numbers and the
+ * corresponding counters. In contrast to the {@code TreeMap} instances of a {@link FileNode}, the counters of a line
+ * can be looked up without boxing the line number or the counters.
+ *
+ * <p>
+ * The text representation is {@code [line1: covered1/missed1, line2: covered2/missed2, ...]}, see
+ * {@link #serialize()} and {@link #valueOf(String)}.
+ * </p>
+ */
+public final class LineCounters implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 4823145670325468011L;
+
+    private static final int[] NO_VALUES = new int[0];
+    private static final LineCounters EMPTY = new LineCounters(NO_VALUES, NO_VALUES, NO_VALUES);
+
+    /**
+     * Returns the counters of the specified file.
+     *
+     * @param file
+     *         the file to get the counters from
+     *
+     * @return the counters of the file
+     */
+    public static LineCounters of(final FileNode file) {
+        var covered = file.getCoveredCounters();
+        if (covered.length == 0) {
+            return EMPTY;
+        }
+        var lines = new int[covered.length];
+        int index = 0;
+        for (int line : file.getLinesWithCoverage()) {
+            lines[index++] = line;
+        }
+        return new LineCounters(lines, covered, file.getMissedCounters());
+    }
+
+    /**
+     * Returns the counters of the specified lines. The arrays are not copied, so they must not be modified afterward.
+     *
+     * @param lines
+     *         the line numbers, sorted in ascending order
+     * @param covered
+     *         the number of covered items of each line
+     * @param missed
+     *         the number of missed items of each line
+     *
+     * @return the counters
+     * @throws IllegalArgumentException
+     *         if the arrays have different lengths or if the lines are not sorted
+     */
+    public static LineCounters of(final int[] lines, final int[] covered, final int[] missed) {
+        if (lines.length != covered.length || lines.length != missed.length) {
+            throw new IllegalArgumentException("The arrays of lines and counters must have the same length");
+        }
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i] <= lines[i - 1]) {
+                throw new IllegalArgumentException("The lines are not sorted: " + Arrays.toString(lines));
+            }
+        }
+        if (lines.length == 0) {
+            return EMPTY;
+        }
+        return new LineCounters(lines, covered, missed);
+    }
+
+    /**
+     * Parses the text representation of the counters, see {@link #serialize()}. The text is scanned directly into
+     * the primitive arrays, no intermediate strings or boxed values are created.
+     *
+     * @param serialized
+     *         the text representation
+     *
+     * @return the counters
+     * @throws IllegalArgumentException
+     *         if the text is not a valid representation of line counters
+     */
+    public static LineCounters valueOf(final String serialized) {
+        var scanner = new Scanner(serialized);
+        var lines = new int[16];
+        var covered = new int[16];
+        var missed = new int[16];
+        int size = 0;
+        scanner.skip('[');
+        while (scanner.hasNumber()) {
+            if (size == lines.length) {
+                lines = Arrays.copyOf(lines, size * 2);
+                covered = Arrays.copyOf(covered, size * 2);
+                missed = Arrays.copyOf(missed, size * 2);
+            }
+            lines[size] = scanner.nextNumber();
+            scanner.skip(':');
+            covered[size] = scanner.nextNumber();
+            scanner.skip('/');
+            missed[size] = scanner.nextNumber();
+            size++;
+            scanner.skip(',');
+        }
+        scanner.skip(']');
+        if (!scanner.isAtEnd()) {
+            throw new IllegalArgumentException("Invalid line counters: " + serialized);
+        }
+        return of(Arrays.copyOf(lines, size), Arrays.copyOf(covered, size), Arrays.copyOf(missed, size));
+    }
+
+    private final int[] lines;
+    private final int[] covered;
+    private final int[] missed;
+
+    private LineCounters(final int[] lines, final int[] covered, final int[] missed) {
+        this.lines = lines;
+        this.covered = covered;
+        this.missed = missed;
+    }
+
+    /**
+     * Adds the counters of all lines to the specified file.
+     *
+     * @param file
+     *         the file to add the counters to
+     */
+    public void addTo(final FileNode file) {
+        for (int i = 0; i < lines.length; i++) {
+            file.addCounters(lines[i], covered[i], missed[i]);
+        }
+    }
+
+    /**
+     * Returns the number of lines with coverage.
+     *
+     * @return the number of lines
+     */
+    public int size() {
+        return lines.length;
+    }
+
+    /**
+     * Returns whether there are no lines with coverage.
+     *
+     * @return {@code true} if there are no lines with coverage, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return lines.length == 0;
+    }
+
+    /**
+     * Returns the line number at the specified position.
+     *
+     * @param index
+     *         the position of the line, must be in the range {@code [0, size())}
+     *
+     * @return the line number
+     */
+    public int getLine(final int index) {
+        return lines[index];
+    }
+
+    /**
+     * Returns the position of the specified line.
+     *
+     * @param line
+     *         the line number
+     *
+     * @return the position of the line, or a negative value if the line has no coverage
+     */
+    public int indexOf(final int line) {
+        return Arrays.binarySearch(lines, line);
+    }
+
+    /**
+     * Returns whether the specified line has coverage.
+     *
+     * @param line
+     *         the line number
+     *
+     * @return {@code true} if the line has coverage, {@code false} otherwise
+     */
+    public boolean contains(final int line) {
+        return indexOf(line) >= 0;
+    }
+
+    /**
+     * Returns the number of covered items of the specified line.
+     *
+     * @param line
+     *         the line number
+     *
+     * @return the number of covered items, or 0 if the line has no coverage
+     */
+    public int getCovered(final int line) {
+        return getCounter(line, covered);
+    }
+
+    /**
+     * Returns the number of missed items of the specified line.
+     *
+     * @param line
+     *         the line number
+     *
+     * @return the number of missed items, or 0 if the line has no coverage
+     */
+    public int getMissed(final int line) {
+        return getCounter(line, missed);
+    }
+
+    private int getCounter(final int line, final int... counters) {
+        var index = indexOf(line);
+        if (index >= 0) {
+            return counters[index];
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the text representation of these counters, i.e.,
+     * {@code [line1: covered1/missed1, line2: covered2/missed2, ...]}.
+     *
+     * @return the text representation
+     */
+    public String serialize() {
+        var builder = new StringBuilder(lines.length * 12 + 2).append('[');
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(lines[i]).append(": ").append(covered[i]).append('/').append(missed[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (LineCounters) o;
+        return Arrays.equals(lines, that.lines)
+                && Arrays.equals(covered, that.covered)
+                && Arrays.equals(missed, that.missed);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(lines);
+        result = 31 * result + Arrays.hashCode(covered);
+        return 31 * result + Arrays.hashCode(missed);
+    }
+
+    @Override
+    public String toString() {
+        return serialize();
+    }
+
+    /**
+     * Scans non-negative numbers and separator characters of a string without creating substrings.
+     */
+    private static final class Scanner {
+        private final String text;
+        private int position;
+
+        Scanner(final String text) {
+            this.text = text;
+        }
+
+        void skip(final char separator) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == separator) {
+                position++;
+            }
+        }
+
+        boolean hasNumber() {
+            skipWhitespace();
+            return position < text.length() && Character.isDigit(text.charAt(position));
+        }
+
+        int nextNumber() {
+            if (!hasNumber()) {
+                throw new IllegalArgumentException("Expected a number at position %d of '%s'".formatted(
+                        position, text));
+            }
+            long number = 0;
+            while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                number = number * 10 + text.charAt(position) - '0';
+                if (number > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Number at position %d of '%s' is too large".formatted(
+                            position, text));
+                }
+                position++;
+            }
+            return (int) number;
+        }
+
+        boolean isAtEnd() {
+            skipWhitespace();
+            return position == text.length();
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable set of line numbers that is stored as sorted list of disjoint line ranges. The memory required by this
+ * set scales with the number of ranges (e.g., the hunks of a change) rather than with the number of lines.
+ *
+ * <p>
+ * The textual representation is a comma separated list of single lines and line ranges, e.g., {@code 1-5, 8, 10-20}.
+ * </p>
+ */
+public final class LineRanges implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2620386426429581475L;
+
+    private static final LineRanges EMPTY = new LineRanges(new int[0], new int[0]);
+    private static final String RANGE_SEPARATOR = "-";
+    private static final String SEPARATOR = ",";
+
+    private final int[] starts;
+    private final int[] ends;
+
+    /**
+     * Returns an empty set of line ranges.
+     *
+     * @return an empty set
+     */
+    public static LineRanges empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a new set of line ranges that contains the specified lines.
+     *
+     * @param lines
+     *         the lines
+     *
+     * @return the line ranges
+     */
+    public static LineRanges of(final Collection<Integer> lines) {
+        var builder = new LineRangesBuilder();
+        lines.forEach(builder::addLine);
+        return builder.build();
+    }
+
+    /**
+     * Parses the textual representation of line ranges. Besides the format of {@link #toString()}, also the format
+     * {@code [1, 2, 3]} of a plain list of lines is supported.
+     *
+     * @param value
+     *         the textual representation
+     *
+     * @return the line ranges
+     * @throws NumberFormatException
+     *         if the value contains invalid line numbers
+     */
+    public static LineRanges valueOf(final String value) {
+        var builder = new LineRangesBuilder();
+        var cleaned = Strings.CS.removeEnd(Strings.CS.removeStart(StringUtils.deleteWhitespace(value), "["), "]");
+        for (String element : StringUtils.split(cleaned, SEPARATOR)) {
+            if (element.contains(RANGE_SEPARATOR)) {
+                builder.addRange(Integer.parseInt(StringUtils.substringBefore(element, RANGE_SEPARATOR)),
+                        Integer.parseInt(StringUtils.substringAfter(element, RANGE_SEPARATOR)));
+            }
+            else {
+                builder.addLine(Integer.parseInt(element));
+            }
+        }
+        return builder.build();
+    }
+
+    private LineRanges(final int[] starts, final int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Returns whether the specified line is part of one of the ranges.
+     *
+     * @param line
+     *         the line to check
+     *
+     * @return {@code true} if the line is part of this set, {@code false} otherwise
+     */
+    public boolean contains(final int line) {
+        int index = Arrays.binarySearch(starts, line);
+        if (index >= 0) {
+            return true;
+        }
+        int range = -index - 2; // the last range that starts before the line
+        return range >= 0 && line <= ends[range];
+    }
+
+    /**
+     * Returns whether all lines of the specified range are part of this set.
+     *
+     * @param from
+     *         the first line of the range
+     * @param to
+     *         the last line of the range (inclusive)
+     *
+     * @return {@code true} if all lines of the range are part of this set, {@code false} otherwise; an empty range is
+     *         always contained
+     */
+    public boolean containsAll(final int from, final int to) {
+        if (to < from) {
+            return true;
+        }
+        int index = Arrays.binarySearch(starts, from);
+        int range = index >= 0 ? index : -index - 2;
+        return range >= 0 && from <= ends[range] && to <= ends[range];
+    }
+
+    /**
+     * Returns whether this set contains no lines.
+     *
+     * @return {@code true} if this set is empty, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Returns the number of lines in this set.
+     *
+     * @return the number of lines
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < starts.length; i++) {
+            size += ends[i] - starts[i] + 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of disjoint ranges in this set.
+     *
+     * @return the number of ranges
+     */
+    public int getRangeCount() {
+        return starts.length;
+    }
+
+    /**
+     * Returns the first line of the specified range.
+     *
+     * @param range
+     *         the index of the range
+     *
+     * @return the first line of the range
+     */
+    public int getStart(final int range) {
+        return starts[range];
+    }
+
+    /**
+     * Returns the last line of the specified range.
+     *
+     * @param range
+     *         the index of the range
+     *
+     * @return the last line of the range
+     */
+    public int getEnd(final int range) {
+        return ends[range];
+    }
+
+    /**
+     * Returns all lines of this set in ascending order.
+     *
+     * @return the lines
+     */
+    public IntStream lines() {
+        return IntStream.range(0, starts.length).flatMap(range -> IntStream.rangeClosed(starts[range], ends[range]));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (LineRanges) o;
+        return Arrays.equals(starts, that.starts) && Arrays.equals(ends, that.ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+    }
+
+    @Override
+    public String toString() {
+        return IntStream.range(0, starts.length)
+                .mapToObj(range -> starts[range] == ends[range]
+                        ? String.valueOf(starts[range])
+                        : starts[range] + RANGE_SEPARATOR + ends[range])
+                .collect(Collectors.joining(SEPARATOR + " "));
+    }
+
+    /**
+     * Creates {@link LineRanges} instances. Lines and ranges can be added in any order, overlapping and adjacent ranges
+     * are merged.
+     */
+    public static final class LineRangesBuilder {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int size;
+        private boolean sorted = true;
+
+        /**
+         * Adds the specified line.
+         *
+         * @param line
+         *         the line to add
+         *
+         * @return this builder
+         */
+        public LineRangesBuilder addLine(final int line) {
+            return addRange(line, line);
+        }
+
+        /**
+         * Adds all lines of the specified range.
+         *
+         * @param from
+         *         the first line of the range
+         * @param to
+         *         the last line of the range (inclusive)
+         *
+         * @return this builder
+         */
+        public LineRangesBuilder addRange(final int from, final int to) {
+            if (to < from) {
+                return this;
+            }
+            if (size > 0 && sorted) {
+                if (from < starts[size - 1]) {
+                    sorted = false;
+                }
+                else if (from <= ends[size - 1] + 1) {
+                    ends[size - 1] = Math.max(ends[size - 1], to);
+                    return this;
+                }
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = from;
+            ends[size] = to;
+            size++;
+            return this;
+        }
+
+        /**
+         * Creates the {@link LineRanges} with the added lines.
+         *
+         * @return the line ranges
+         */
+        public LineRanges build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (sorted) {
+                return new LineRanges(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+            }
+
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(starts[a], starts[b]));
+
+            var merged = new LineRangesBuilder();
+            for (int index : order) {
+                merged.addRange(starts[index], ends[index]);
+            }
+            return merged.build();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the resources that have been used by the individual phases of the coverage recording, i.e., the elapsed wall
+ * time, the CPU time, and the number of allocated bytes. CPU time and allocated bytes are measured for the thread that
+ * executes the recording step on the controller. Work that is delegated to an agent (e.g., parsing the reports or
+ * painting the source files) is therefore only visible in the wall time of the corresponding phase. If the JVM does not
+ * support measuring the CPU time or the allocated bytes of a thread, then the corresponding values are {@code -1}.
+ */
+public final class PhaseTimings implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2370148474405869567L;
+
+    private static final long NOT_AVAILABLE = -1;
+
+    @SuppressWarnings("serial")
+    private final List<Phase> phases = new ArrayList<>(); // do not use immutable collections to simplify serialization
+
+    /**
+     * Starts the measurement of the specified phase. The measurement is recorded when the returned
+     * {@link Measurement} is closed.
+     *
+     * @param name
+     *         the name of the phase
+     *
+     * @return the running measurement
+     */
+    public Measurement start(final String name) {
+        return new Measurement(name);
+    }
+
+    /**
+     * Returns the recorded phases in the order of their completion.
+     *
+     * @return the recorded phases
+     */
+    public List<Phase> getPhases() {
+        synchronized (phases) {
+            return List.copyOf(phases);
+        }
+    }
+
+    /**
+     * Returns whether phases have been recorded.
+     *
+     * @return {@code true} if no phase has been recorded yet, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        synchronized (phases) {
+            return phases.isEmpty();
+        }
+    }
+
+    /**
+     * Returns the total wall time of all recorded phases.
+     *
+     * @return the total wall time in milliseconds
+     */
+    public long getWallTimeMillis() {
+        return getPhases().stream().mapToLong(Phase::getWallTimeMillis).sum();
+    }
+
+    private void add(final Phase phase) {
+        synchronized (phases) {
+            phases.add(phase);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getPhases().toString();
+    }
+
+    private static long getCpuTime() {
+        var bean = ManagementFactory.getThreadMXBean();
+        if (bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled()) {
+            return bean.getCurrentThreadCpuTime();
+        }
+        return NOT_AVAILABLE;
+    }
+
+    @SuppressWarnings("deprecation") // Thread.threadId() requires Java 19
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean extendedBean
+                && extendedBean.isThreadAllocatedMemorySupported()
+                && extendedBean.isThreadAllocatedMemoryEnabled()) {
+            return extendedBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return NOT_AVAILABLE;
+    }
+
+    private static long difference(final long start, final long end) {
+        if (start == NOT_AVAILABLE || end == NOT_AVAILABLE) {
+            return NOT_AVAILABLE;
+        }
+        return end - start;
+    }
+
+    /**
+     * A running measurement of a phase. Closing the measurement records the resources used since its start.
+     */
+    public final class Measurement implements AutoCloseable {
+        private final String name;
+        private final long wallTime;
+        private final long cpuTime;
+        private final long allocatedBytes;
+
+        private Measurement(final String name) {
+            this.name = name;
+
+            wallTime = System.nanoTime();
+            cpuTime = getCpuTime();
+            allocatedBytes = getAllocatedBytes();
+        }
+
+        @Override
+        public void close() {
+            var cpuTimeNanos = difference(cpuTime, getCpuTime());
+            add(new Phase(name,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallTime),
+                    cpuTimeNanos == NOT_AVAILABLE ? NOT_AVAILABLE : TimeUnit.NANOSECONDS.toMillis(cpuTimeNanos),
+                    difference(allocatedBytes, getAllocatedBytes())));
+        }
+    }
+
+    /**
+     * The resources that have been used by a single phase.
+     */
+    public static final class Phase implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 4170281329917311374L;
+
+        private final String name;
+        private final long wallTimeMillis;
+        private final long cpuTimeMillis;
+        private final long allocatedBytes;
+
+        /**
+         * Creates a new instance of {@link Phase}.
+         *
+         * @param name
+         *         the name of the phase
+         * @param wallTimeMillis
+         *         the elapsed wall time in milliseconds
+         * @param cpuTimeMillis
+         *         the CPU time in milliseconds, or {@code -1} if not available
+         * @param allocatedBytes
+         *         the number of allocated bytes, or {@code -1} if not available
+         */
+        public Phase(final String name, final long wallTimeMillis, final long cpuTimeMillis,
+                final long allocatedBytes) {
+            this.name = name;
+            this.wallTimeMillis = wallTimeMillis;
+            this.cpuTimeMillis = cpuTimeMillis;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+
+        public long getCpuTimeMillis() {
+            return cpuTimeMillis;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Returns the CPU time as human-readable text.
+         *
+         * @return the CPU time in milliseconds, or {@code n/a} if not available
+         */
+        public String formatCpuTime() {
+            return cpuTimeMillis == NOT_AVAILABLE ? "n/a" : cpuTimeMillis + " ms";
+        }
+
+        /**
+         * Returns the number of allocated bytes as human-readable text.
+         *
+         * @return the allocated kilobytes, or {@code n/a} if not available
+         */
+        public String formatAllocatedBytes() {
+            return allocatedBytes == NOT_AVAILABLE ? "n/a" : allocatedBytes / 1024 + " KB";
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH, "%s: wall time %d ms, CPU time %s, allocated %s",
+                    name, wallTimeMillis, formatCpuTime(), formatAllocatedBytes());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package io.jenkins.plugins.coverage.metrics.restapi;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.Value;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.NavigableMap;
 import java.util.TreeMap;
@@ -13,6 +14,8 @@ import org.kohsuke.stapler.export.ExportedBean;
 import io.jenkins.plugins.coverage.metrics.model.Baseline;
 import io.jenkins.plugins.coverage.metrics.model.CoverageStatistics;
 import io.jenkins.plugins.coverage.metrics.model.ElementFormatter;
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings;
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings.Phase;
 import io.jenkins.plugins.util.QualityGateResult;
 import io.jenkins.plugins.util.QualityGateResult.QualityGateResultApi;
 
@@ -27,6 +30,7 @@ public class CoverageApi {
     private final CoverageStatistics statistics;
     private final QualityGateResult qualityGateResult;
     private final String referenceBuild;
+    private final PhaseTimings phaseTimings;
 
     /**
      * Creates a new instance of {@link CoverageApi}.
@@ -40,9 +44,27 @@ public class CoverageApi {
      */
     public CoverageApi(final CoverageStatistics statistics, final QualityGateResult qualityGateResult,
             final String referenceBuild) {
+        this(statistics, qualityGateResult, referenceBuild, new PhaseTimings());
+    }
+
+    /**
+     * Creates a new instance of {@link CoverageApi}.
+     *
+     * @param statistics
+     *         the coverage statistics of the build.
+     * @param qualityGateResult
+     *         the quality gate result of the build.
+     * @param referenceBuild
+     *         the build referenced for comparison purposes.
+     * @param phaseTimings
+     *         the resources used by the individual phases of the recording step.
+     */
+    public CoverageApi(final CoverageStatistics statistics, final QualityGateResult qualityGateResult,
+            final String referenceBuild, final PhaseTimings phaseTimings) {
         this.statistics = statistics;
         this.qualityGateResult = qualityGateResult;
         this.referenceBuild = referenceBuild;
+        this.phaseTimings = phaseTimings;
     }
 
     @Exported(inline = true)
@@ -115,6 +137,16 @@ public class CoverageApi {
         return mapToStrings(Baseline.MODIFIED_LINES_DELTA);
     }
 
+    /**
+     * Returns the resources that have been used by the individual phases of the recording step.
+     *
+     * @return the resources of the recording phases, in the order of their execution
+     */
+    @Exported(inline = true)
+    public List<PhaseApi> getPhaseTimings() {
+        return phaseTimings.getPhases().stream().map(PhaseApi::new).toList();
+    }
+
     private NavigableMap<String, String> mapToStrings(final Baseline baseline) {
         var values = new TreeMap<String, String>();
 
@@ -137,4 +169,36 @@ public class CoverageApi {
     private String formatDelta(final Value value) {
         return FORMATTER.formatDelta(value, Locale.ENGLISH);
     }
+
+    /**
+     * Remote API for the resources that have been used by a single phase of the recording step.
+     */
+    @ExportedBean
+    public static class PhaseApi {
+        private final Phase phase;
+
+        PhaseApi(final Phase phase) {
+            this.phase = phase;
+        }
+
+        @Exported
+        public String getName() {
+            return phase.getName();
+        }
+
+        @Exported
+        public long getWallTimeMillis() {
+            return phase.getWallTimeMillis();
+        }
+
+        @Exported
+        public long getCpuTimeMillis() {
+            return phase.getCpuTimeMillis();
+        }
+
+        @Exported
+        public long getAllocatedBytes() {
+            return phase.getAllocatedBytes();
+        }
+    }
 }
@@ -8,11 +8,13 @@ import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
+import io.jenkins.plugins.coverage.metrics.model.LineRanges;
+import io.jenkins.plugins.coverage.metrics.model.LineRanges.LineRangesBuilder;
+
 /**
  * Remote API to list the details of modified line coverage results.
  */
@@ -41,15 +43,16 @@ class ModifiedLinesCoverageApi {
         var result = new ArrayList<FileWithModifiedLines>();
 
         for (FileNode fileNode : node.filterByModifiedLines().getAllFileNodes()) {
-            var modifiedLines = new ArrayList<>(fileNode.getModifiedLines());
-            var modifiedLinesWithoutCoverage = modifiedLines.stream()
-                    .filter(line -> !fileNode.getLinesWithCoverage().contains(line))
-                    .collect(Collectors.toList());
+            var modifiedLines = LineRanges.of(fileNode.getModifiedLines());
+            var linesWithCoverage = fileNode.getLinesWithCoverage();
+            var withoutCoverage = new LineRangesBuilder();
+            modifiedLines.lines().filter(line -> !linesWithCoverage.contains(line)).forEach(withoutCoverage::addLine);
+            var modifiedLinesWithoutCoverage = withoutCoverage.build();
 
             var missedLines = filterByModifiedLines(modifiedLines, fileNode.getMissedLines());
             var partiallyCoveredLines =
                     filterByModifiedLines(modifiedLines, fileNode.getPartiallyCoveredLines().keySet());
-            var coveredLines = fileNode.getLinesWithCoverage().stream()
+            var coveredLines = linesWithCoverage.stream()
                     .filter(line -> fileNode.getMissedOfLine(line) == 0)
                     .filter(modifiedLines::contains)
                     .collect(Collectors.toList());
@@ -80,7 +83,7 @@ class ModifiedLinesCoverageApi {
      *
      * @return the filtered lines
      */
-    private List<Integer> filterByModifiedLines(final Collection<Integer> modifiedLines,
+    private List<Integer> filterByModifiedLines(final LineRanges modifiedLines,
             final Collection<Integer> lines) {
         return lines.stream().filter(modifiedLines::contains).collect(Collectors.toList());
     }
@@ -101,7 +104,7 @@ class ModifiedLinesCoverageApi {
      * @return the list of {@link ModifiedLinesBlock}
      */
     private List<ModifiedLinesBlock> calculateModifiedLineBlocks(final List<Integer> modifiedLines,
-            final List<Integer> modifiedLinesWithoutCoverage, final LineCoverageType type) {
+            final LineRanges modifiedLinesWithoutCoverage, final LineCoverageType type) {
         var modifiedLinesBlocks = new ArrayList<ModifiedLinesBlock>();
         if (modifiedLines.isEmpty()) {
             return modifiedLinesBlocks;
@@ -141,7 +144,7 @@ class ModifiedLinesCoverageApi {
      *         else {@code false}
      */
     private boolean hasAnyLinesWithCoverageBetween(final int start, final int end,
-            final List<Integer> modifiedLinesWithoutCoverage) {
-        return IntStream.range(start + 1, end).anyMatch(line -> !modifiedLinesWithoutCoverage.contains(line));
+            final LineRanges modifiedLinesWithoutCoverage) {
+        return !modifiedLinesWithoutCoverage.containsAll(start + 1, end - 1);
     }
 }
@@ -7,10 +7,9 @@ import edu.hm.hafner.coverage.FileNode;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.NavigableSet;
-import java.util.TreeSet;
 
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.coverage.metrics.model.LineRanges;
 import io.jenkins.plugins.prism.Sanitizer;
 
 import static j2html.TagCreator.*;
@@ -32,21 +31,15 @@ class CoverageSourcePrinter implements Serializable {
     static final String NBSP = "&nbsp;";
 
     private final String path;
-    private final int[] linesToPaint;
-    private final int[] coveredPerLine;
+    private final LineCounters counters;
 
-    private final int[] missedPerLine;
-
-    @SuppressWarnings("serial")
-    private final NavigableSet<Integer> modifiedLines;
+    private final LineRanges modifiedLines;
 
     CoverageSourcePrinter(final FileNode file) {
         path = file.getRelativePath();
 
-        linesToPaint = file.getLinesWithCoverage().stream().mapToInt(i -> i).toArray();
-        coveredPerLine = file.getCoveredCounters();
-        missedPerLine = file.getMissedCounters();
-        modifiedLines = new TreeSet<>(file.getModifiedLines());
+        counters = LineCounters.of(file);
+        modifiedLines = LineRanges.of(file.getModifiedLines());
     }
 
     String renderLine(final int line, final String sourceCode) {
@@ -73,7 +66,7 @@ class CoverageSourcePrinter implements Serializable {
     }
 
     final int size() {
-        return linesToPaint.length;
+        return counters.size();
     }
 
     String getModifiedClass(final int line) {
@@ -134,15 +127,15 @@ class CoverageSourcePrinter implements Serializable {
     }
 
     int findIndexOfLine(final int line) {
-        return Arrays.binarySearch(linesToPaint, line);
+        return counters.indexOf(line);
     }
 
     int getCovered(final int line) {
-        return getCounter(line, coveredPerLine);
+        return counters.getCovered(line);
     }
 
     int getMissed(final int line) {
-        return getCounter(line, missedPerLine);
+        return counters.getMissed(line);
     }
 
     int getCounter(final int line, final int... counters) {
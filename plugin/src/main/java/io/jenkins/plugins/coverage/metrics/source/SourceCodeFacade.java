@@ -28,6 +28,8 @@ import java.util.stream.Collectors;
 import hudson.FilePath;
 import hudson.model.Run;
 
+import io.jenkins.plugins.coverage.metrics.model.LineRanges;
+
 /**
  * Facade to the source code file structure in Jenkins build folder. Access of those files should be done using an
  * instance of this class only.
@@ -202,8 +204,9 @@ public class SourceCodeFacade {
      * @return the filtered HTML sourcecode view
      */
     public String calculateModifiedLinesCoverageSourceCode(final String content, final FileNode fileNode) {
+        var modifiedLines = LineRanges.of(fileNode.getModifiedLines());
         Set<Integer> lines = fileNode.getLinesWithCoverage();
-        lines.retainAll(fileNode.getModifiedLines());
+        lines.removeIf(line -> !modifiedLines.contains(line));
         Set<String> linesAsText = lines.stream().map(String::valueOf).collect(Collectors.toSet());
         Document doc = Jsoup.parse(content, Parser.xmlParser());
         int maxLine = Integer.parseInt(Objects.requireNonNull(
@@ -31,6 +31,7 @@ import hudson.model.Run;
 import hudson.remoting.VirtualChannel;
 import jenkins.MasterToSlaveFileCallable;
 
+import io.jenkins.plugins.coverage.metrics.model.CompactTransport;
 import io.jenkins.plugins.prism.SourceCodeRetention;
 import io.jenkins.plugins.util.ValidationUtilities;
 
@@ -139,8 +140,7 @@ public class SourceCodePainter {
         @Serial
         private static final long serialVersionUID = 3966282357309568323L;
 
-        @SuppressWarnings("serial")
-        private final List<? extends CoverageSourcePrinter> paintedFiles;
+        private final CompactTransport<ArrayList<CoverageSourcePrinter>> paintedFiles;
         private final String sourceCodeEncoding;
         private final String directory;
 
@@ -158,7 +158,7 @@ public class SourceCodePainter {
                 final String directory) {
             super();
 
-            this.paintedFiles = new ArrayList<>(files);
+            this.paintedFiles = CompactTransport.of(new ArrayList<CoverageSourcePrinter>(files));
             this.sourceCodeEncoding = sourceCodeEncoding;
             this.directory = directory;
         }
@@ -167,6 +167,7 @@ public class SourceCodePainter {
         public FilteredLog invoke(final File workspaceFile, final VirtualChannel channel) {
             var log = new FilteredLog("Errors during source code painting:");
             var workspace = new FilePath(workspaceFile);
+            var files = paintedFiles.get();
 
             try {
                 var tempParent = workspace.createTempDir("coverage-sources-", "");
@@ -176,16 +177,16 @@ public class SourceCodePainter {
                 Path temporaryFolder = Files.createTempDirectory(directory);
 
                 try {
-                    int count = paintedFiles.parallelStream()
+                    int count = files.parallelStream()
                             .mapToInt(file -> paintSource(file, workspace, outputFolder, temporaryFolder, log))
                             .sum();
 
-                    if (count == paintedFiles.size()) {
+                    if (count == files.size()) {
                         log.logInfo("-> finished painting successfully");
                     }
                     else {
                         log.logInfo("-> finished painting (%d files have been painted, %d files failed)",
-                                count, paintedFiles.size() - count);
+                                count, files.size() - count);
                     }
 
                     var zipFile = workspace.child(SourceCodeFacade.COVERAGE_SOURCES_ZIP);
@@ -70,7 +70,9 @@ class CodeDeltaCalculator {
     }
 
     /**
-     * Calculates the code delta between the {@link #build} and the passed reference build.
+     * Calculates the code delta between the {@link #build} and the passed reference build. The delta is computed only
+     * once per build and reference build, subsequent recordings of the same build reuse the delta (see
+     * {@link DeltaCache}).
      *
      * @param referenceBuild
      *         The reference build
@@ -80,9 +82,10 @@ class CodeDeltaCalculator {
      * @return the {@link Delta code delta} as Optional if existent, else an empty Optional
      */
     Optional<Delta> calculateCodeDeltaToReference(final Run<?, ?> referenceBuild, final FilteredLog log) {
-        return DeltaCalculatorFactory
-                .findDeltaCalculator(scm, build, workspace, listener, log)
-                .calculateDelta(build, referenceBuild, log);
+        return DeltaCache.getInstance().get(build, referenceBuild, scm, log,
+                () -> DeltaCalculatorFactory
+                        .findDeltaCalculator(scm, build, workspace, listener, log)
+                        .calculateDelta(build, referenceBuild, log));
     }
 
     /**
@@ -184,7 +187,10 @@ class CodeDeltaCalculator {
     }
 
     /**
-     * Creates a mapping between SCM paths and the corresponding coverage report paths.
+     * Creates a mapping between SCM paths and the corresponding coverage report paths. Each SCM path is mapped to the
+     * longest report path that is a suffix of the SCM path. Rather than comparing each SCM path with all report
+     * paths, the suffixes of an SCM path are looked up in a hash set of the report paths: only the suffixes that have
+     * the length of at least one report path need to be checked, starting with the longest one.
      *
      * @param scmPaths
      *         The SCM paths
@@ -195,20 +201,34 @@ class CodeDeltaCalculator {
      */
     private Map<String, String> getScmToReportPathMapping(
             final Collection<String> scmPaths, final Collection<String> reportPaths) {
+        Set<String> index = new HashSet<>(reportPaths);
+        int[] lengths = index.stream()
+                .mapToInt(String::length)
+                .distinct()
+                .boxed()
+                .sorted(Comparator.reverseOrder())
+                .mapToInt(Integer::intValue)
+                .toArray();
+
         Map<String, String> pathMapping = new HashMap<>();
         for (String scmPath : scmPaths) {
-            reportPaths.stream()
-                    .filter(scmPath::endsWith)
-                    .max(Comparator.comparingInt(String::length))
-                    .map(match -> {
-                        pathMapping.put(scmPath, match);
-                        return match;
-                    })
-                    .orElseGet(() -> pathMapping.put(scmPath, ""));
+            pathMapping.put(scmPath, findLongestSuffix(scmPath, index, lengths));
         }
         return pathMapping;
     }
 
+    private String findLongestSuffix(final String scmPath, final Set<String> reportPaths, final int... lengths) {
+        for (int length : lengths) {
+            if (length <= scmPath.length()) {
+                var suffix = scmPath.substring(scmPath.length() - length);
+                if (reportPaths.contains(suffix)) {
+                    return suffix;
+                }
+            }
+        }
+        return "";
+    }
+
     /**
      * Verifies the passed mapping between SCM and coverage report paths.
      *
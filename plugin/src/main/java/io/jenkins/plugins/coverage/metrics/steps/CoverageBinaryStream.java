@@ -0,0 +1,531 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import hudson.util.XStream2;
+
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * Reads and writes the coverage tree in a compact binary format. In contrast to the {@link CoverageXmlStream} the tree
+ * is split into independent blocks: each module or container node is stored as a single node without children, each
+ * package (or any other node below a module) is stored together with its complete subtree.
+ *
+ * <p>
+ * The file uses the following schema, all numbers are written with {@link DataOutput}:
+ * </p>
+ * <ul>
+ *     <li>Header: magic number, version, and the offset of the index.</li>
+ *     <li>Blocks: each block starts with the skeleton of its nodes, i.e., the deflated XML of the nodes without the
+ *     covered and missed items per line (see {@link CoverageXmlStream#getSkeletonStream()}). The skeleton uses the
+ *     same mapping as the XML format, so it does not depend on the serialized form of the model classes. The
+ *     skeleton is followed by the number of files of the block and the line counters of each file: the number of
+ *     lines and for each line the delta to the previous line number and the covered and missed items, all varint
+ *     encoded.</li>
+ *     <li>Index: a string table and a columnar index that contains for each block the metric and name of the block
+ *     root, the index of the parent block, the size of the block, and some flags (e.g., whether the block contains
+ *     modified lines). The index is completed by a file table that maps the relative path of each file to the block
+ *     that contains the file.</li>
+ * </ul>
+ *
+ * <p>
+ * The offset of each block is the sum of the sizes of the preceding blocks. The index allows readers to locate the
+ * blocks of individual modules or packages without decoding the whole file. Readers can use this index to load single
+ * files or the files with modified lines only (see {@link #readFile(Path, int)} and {@link #readModifiedFiles(Path)}):
+ * the blocks of the modules and containers are always loaded, all other blocks are skipped if they are not selected.
+ * The blocks are streamed into a temporary file, the index is appended after the last block. The temporary file
+ * replaces the target file atomically, so that readers never see a partially written file.
+ * </p>
+ */
+class CoverageBinaryStream extends AbstractXmlStream<Node> {
+    private static final Logger LOGGER = Logger.getLogger(CoverageBinaryStream.class.getName());
+
+    static final int MAGIC = 0x434F5642; // "COVB"
+    static final int VERSION = 3;
+
+    static final int MODIFIED = 1;
+
+    private static final int NO_PARENT = -1;
+    private static final int INDEX_OFFSET_POSITION = 2 * Integer.BYTES;
+    private static final int HEADER_SIZE = INDEX_OFFSET_POSITION + Long.BYTES;
+
+    /**
+     * Creates a binary stream for {@link Node}.
+     */
+    CoverageBinaryStream() {
+        super(Node.class);
+    }
+
+    @Override
+    protected Node createDefaultValue() {
+        return new ModuleNode("Empty");
+    }
+
+    @Override
+    public Node read(final Path file) {
+        return getRoot(readBlocks(file, index -> block -> true));
+    }
+
+    /**
+     * Reads the file with the specified hash code of its relative path. Only the block that contains the file is
+     * decoded.
+     *
+     * @param file
+     *         the file to read
+     * @param pathHash
+     *         the hash code of the relative path of the file, as used in the links of the coverage views
+     *
+     * @return the file, or an empty result if the binary file does not contain such a file
+     */
+    Optional<FileNode> readFile(final Path file, final int pathHash) {
+        Predicate<FileNode> filter = candidate -> candidate.getRelativePath().hashCode() == pathHash;
+        var blocks = readBlocks(file, index -> index.findBlocksOfFile(pathHash)::get);
+        var selected = blocks.index().findBlocksOfFile(pathHash);
+        for (int block = selected.nextSetBit(0); block >= 0; block = selected.nextSetBit(block + 1)) {
+            var candidate = findFile(blocks.nodes()[block], filter);
+            if (candidate.isPresent()) {
+                return candidate;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<FileNode> findFile(final Node node, final Predicate<FileNode> filter) {
+        if (node == null) {
+            return Optional.empty();
+        }
+        if (node instanceof FileNode fileNode) {
+            return Optional.of(fileNode).filter(filter);
+        }
+        return node.getAllFileNodes().stream().filter(filter).findFirst();
+    }
+
+    /**
+     * Reads the modules and containers of the coverage tree and all blocks that contain files with modified lines.
+     * Blocks without modified lines are skipped.
+     *
+     * @param file
+     *         the file to read
+     *
+     * @return the root of the tree
+     */
+    Node readModifiedFiles(final Path file) {
+        return getRoot(readBlocks(file, index -> block -> index.hasFlag(block, MODIFIED)));
+    }
+
+    private Node getRoot(final Blocks blocks) {
+        if (blocks.nodes().length == 0 || blocks.nodes()[0] == null) {
+            return createDefaultValue();
+        }
+        return blocks.nodes()[0];
+    }
+
+    private Blocks readBlocks(final Path file, final Function<BlockIndex, IntPredicate> selector) {
+        try (var channel = FileChannel.open(file)) {
+            var index = BlockIndex.read(channel);
+            var isSelected = selector.apply(index);
+            var xStream = new CoverageXmlStream().getStream();
+            var nodes = new Node[index.size()];
+            channel.position(HEADER_SIZE);
+            var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            for (int block = 0; block < index.size(); block++) {
+                int parent = index.getParent(block);
+                if ((isStructural(index.getMetric(block)) || isSelected.test(block))
+                        && (parent == NO_PARENT || nodes[parent] != null)) {
+                    var node = readBlock(input, xStream);
+                    nodes[block] = node;
+                    if (parent != NO_PARENT) {
+                        nodes[parent].addChild(node);
+                    }
+                }
+                else {
+                    input.skipNBytes(index.getLength(block));
+                }
+            }
+            return new Blocks(index, nodes);
+        }
+        catch (IOException | RuntimeException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to read coverage tree from " + file, exception);
+            return new Blocks(new BlockIndex(), new Node[0]);
+        }
+    }
+
+    private Node readBlock(final DataInputStream input, final XStream2 xStream) throws IOException {
+        var skeleton = input.readNBytes(input.readInt());
+        try (var reader = new InputStreamReader(
+                new InflaterInputStream(new ByteArrayInputStream(skeleton)), StandardCharsets.UTF_8)) {
+            if (xStream.fromXML(reader) instanceof Node node) {
+                var files = getFiles(node);
+                int count = readVarInt(input);
+                if (count != files.size()) {
+                    throw new IOException("Block contains line data of %d files, but the skeleton has %d files"
+                            .formatted(count, files.size()));
+                }
+                for (FileNode fileNode : files) {
+                    readLineCounters(input).addTo(fileNode);
+                }
+                return node;
+            }
+            throw new IOException("Block does not contain a coverage tree");
+        }
+    }
+
+    @Override
+    public void write(final Path file, final Node root) {
+        try {
+            write(file, root, new CoverageDigest());
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to write coverage tree to " + file, exception);
+        }
+    }
+
+    /**
+     * Writes the specified coverage tree. The line data of each file is added to the specified digest as well, so
+     * that the digest does not require another pass over all lines of the tree.
+     *
+     * @param file
+     *         the file to write
+     * @param root
+     *         the root of the coverage tree
+     * @param digest
+     *         the digest that gets the line data of all files
+     *
+     * @throws IOException
+     *         if the tree could not be written, the target file is not modified in this case
+     */
+    void write(final Path file, final Node root, final CoverageDigest digest) throws IOException {
+        var index = new BlockIndex();
+        var xStream = new CoverageXmlStream().getSkeletonStream();
+        var temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+                    var output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(0); // the offset of the index is known after all blocks have been written
+                writeBlocks(root, NO_PARENT, index, new BlockWriter(xStream, output, digest));
+                output.flush();
+                long indexOffset = channel.position();
+                index.write(output);
+                output.flush();
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, indexOffset), INDEX_OFFSET_POSITION);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeBlocks(final Node node, final int parent, final BlockIndex index, final BlockWriter writer)
+            throws IOException {
+        if (isStructural(node.getMetric())) {
+            int block = index.add(node, parent, writer.write(node.copyNode()));
+            for (Node child : node.getChildren()) {
+                writeBlocks(child, block, index, writer);
+            }
+        }
+        else {
+            index.add(node, parent, writer.write(node.copyTree()));
+        }
+    }
+
+    private static List<FileNode> getFiles(final Node node) {
+        return node instanceof FileNode fileNode ? List.of(fileNode) : node.getAllFileNodes();
+    }
+
+    private static LineCounters readLineCounters(final DataInput input) throws IOException {
+        int size = readVarInt(input);
+        var lines = new int[size];
+        var covered = new int[size];
+        var missed = new int[size];
+        int line = 0;
+        for (int i = 0; i < size; i++) {
+            line += readVarInt(input);
+            lines[i] = line;
+            covered[i] = readVarInt(input);
+            missed[i] = readVarInt(input);
+        }
+        return LineCounters.of(lines, covered, missed);
+    }
+
+    private static void writeLineCounters(final DataOutput output, final LineCounters counters) throws IOException {
+        writeVarInt(output, counters.size());
+        int previous = 0;
+        for (int i = 0; i < counters.size(); i++) {
+            int line = counters.getLine(i);
+            writeVarInt(output, line - previous);
+            writeVarInt(output, counters.getCovered(line));
+            writeVarInt(output, counters.getMissed(line));
+            previous = line;
+        }
+    }
+
+    private static int readVarInt(final DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int current = input.readUnsignedByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary coverage file");
+    }
+
+    private static void writeVarInt(final DataOutput output, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte(remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    private static boolean isStructural(final Metric metric) {
+        return metric == Metric.CONTAINER || metric == Metric.MODULE;
+    }
+
+    private record Blocks(BlockIndex index, Node[] nodes) {
+    }
+
+    /**
+     * Writes the blocks of a coverage tree and adds the line data of all files to the digest.
+     */
+    private record BlockWriter(XStream2 xStream, DataOutputStream output, CoverageDigest digest) {
+        /**
+         * Writes the specified detached node as a single block.
+         *
+         * @param detached
+         *         the root of the block, must not have a parent
+         *
+         * @return the size of the block in bytes
+         * @throws IOException
+         *         if the block could not be written
+         */
+        int write(final Node detached) throws IOException {
+            var skeleton = new ByteArrayOutputStream();
+            try (var writer = new OutputStreamWriter(new DeflaterOutputStream(skeleton), StandardCharsets.UTF_8)) {
+                xStream.toXML(detached, writer);
+            }
+            var lineData = new ByteArrayOutputStream();
+            var lines = new DataOutputStream(lineData);
+            var files = getFiles(detached);
+            writeVarInt(lines, files.size());
+            for (FileNode file : files) {
+                var counters = LineCounters.of(file);
+                digest.add(file.getRelativePath(), counters);
+                writeLineCounters(lines, counters);
+            }
+
+            output.writeInt(skeleton.size());
+            skeleton.writeTo(output);
+            lineData.writeTo(output);
+            return Integer.BYTES + skeleton.size() + lineData.size();
+        }
+    }
+
+    /**
+     * The columnar index of the blocks of a binary coverage file, together with the table of the files and their
+     * blocks.
+     */
+    static final class BlockIndex {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+
+        private int[] metrics = new int[16];
+        private int[] names = new int[16];
+        private int[] parents = new int[16];
+        private int[] lengths = new int[16];
+        private int[] flags = new int[16];
+        private int size;
+
+        private int[] filePaths = new int[16];
+        private int[] fileBlocks = new int[16];
+        private int fileCount;
+
+        static BlockIndex read(final FileChannel channel) throws IOException {
+            var header = new DataInputStream(Channels.newInputStream(channel.position(0)));
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Data is not a binary coverage file");
+            }
+            var version = header.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version of binary coverage file: " + version);
+            }
+            var indexOffset = header.readLong();
+            var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(
+                    channel.position(indexOffset))));
+
+            var index = new BlockIndex();
+            int stringCount = input.readInt();
+            for (int i = 0; i < stringCount; i++) {
+                index.intern(input.readUTF());
+            }
+            index.size = input.readInt();
+            index.metrics = readColumn(input, index.size);
+            index.names = readColumn(input, index.size);
+            index.parents = readColumn(input, index.size);
+            index.lengths = readColumn(input, index.size);
+            index.flags = readColumn(input, index.size);
+            index.fileCount = input.readInt();
+            index.filePaths = readColumn(input, index.fileCount);
+            index.fileBlocks = readColumn(input, index.fileCount);
+            return index;
+        }
+
+        private static int[] readColumn(final DataInputStream input, final int size) throws IOException {
+            var column = new int[size];
+            for (int i = 0; i < size; i++) {
+                column[i] = input.readInt();
+            }
+            return column;
+        }
+
+        void write(final DataOutputStream output) throws IOException {
+            output.writeInt(strings.size());
+            for (String value : strings) {
+                output.writeUTF(value);
+            }
+            output.writeInt(size);
+            writeColumn(output, metrics, size);
+            writeColumn(output, names, size);
+            writeColumn(output, parents, size);
+            writeColumn(output, lengths, size);
+            writeColumn(output, flags, size);
+            output.writeInt(fileCount);
+            writeColumn(output, filePaths, fileCount);
+            writeColumn(output, fileBlocks, fileCount);
+        }
+
+        private void writeColumn(final DataOutputStream output, final int[] column, final int length)
+                throws IOException {
+            for (int i = 0; i < length; i++) {
+                output.writeInt(column[i]);
+            }
+        }
+
+        int add(final Node node, final int parent, final int length) {
+            if (size == metrics.length) {
+                int capacity = size * 2;
+                metrics = Arrays.copyOf(metrics, capacity);
+                names = Arrays.copyOf(names, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+            }
+            metrics[size] = intern(node.getMetric().name());
+            names[size] = intern(node.getName());
+            parents[size] = parent;
+            lengths[size] = length;
+            if (!isStructural(node.getMetric())) { // the children of structural nodes are stored in separate blocks
+                var files = getFiles(node);
+                for (FileNode file : files) {
+                    addFile(file, size);
+                }
+                if (files.stream().anyMatch(FileNode::hasModifiedLines)) {
+                    flags[size] |= MODIFIED;
+                }
+            }
+            return size++;
+        }
+
+        private void addFile(final FileNode file, final int block) {
+            if (fileCount == filePaths.length) {
+                filePaths = Arrays.copyOf(filePaths, fileCount * 2);
+                fileBlocks = Arrays.copyOf(fileBlocks, fileCount * 2);
+            }
+            filePaths[fileCount] = intern(file.getRelativePath());
+            fileBlocks[fileCount] = block;
+            fileCount++;
+        }
+
+        private int intern(final String value) {
+            return stringIndex.computeIfAbsent(value, key -> {
+                strings.add(key);
+                return strings.size() - 1;
+            });
+        }
+
+        int size() {
+            return size;
+        }
+
+        Metric getMetric(final int block) {
+            return Metric.valueOf(strings.get(metrics[block]));
+        }
+
+        String getName(final int block) {
+            return strings.get(names[block]);
+        }
+
+        int getParent(final int block) {
+            return parents[block];
+        }
+
+        int getLength(final int block) {
+            return lengths[block];
+        }
+
+        boolean hasFlag(final int block, final int flag) {
+            return (flags[block] & flag) != 0;
+        }
+
+        /**
+         * Returns the blocks that contain a file whose relative path has the specified hash code.
+         *
+         * @param pathHash
+         *         the hash code of the relative path of the file
+         *
+         * @return the blocks
+         */
+        BitSet findBlocksOfFile(final int pathHash) {
+            var blocks = new BitSet(size);
+            for (int i = 0; i < fileCount; i++) {
+                if (strings.get(filePaths[i]).hashCode() == pathHash) {
+                    blocks.set(fileBlocks[i]);
+                }
+            }
+            return blocks;
+        }
+    }
+}
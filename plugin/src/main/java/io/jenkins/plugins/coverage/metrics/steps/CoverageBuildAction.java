@@ -3,6 +3,7 @@ package io.jenkins.plugins.coverage.metrics.steps;
 import org.apache.commons.lang3.StringUtils;
 
 import edu.hm.hafner.coverage.Difference;
+import edu.hm.hafner.coverage.FileNode;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.coverage.Value;
@@ -11,7 +12,10 @@ import edu.hm.hafner.util.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.io.IOException;
 import java.io.Serial;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NavigableMap;
@@ -33,7 +37,11 @@ import hudson.util.XStream2;
 import io.jenkins.plugins.coverage.metrics.model.Baseline;
 import io.jenkins.plugins.coverage.metrics.model.CoverageStatistics;
 import io.jenkins.plugins.coverage.metrics.model.ElementFormatter;
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageReferenceIndex.IndexXmlStream;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTreeCache.CachingStream;
 import io.jenkins.plugins.coverage.metrics.steps.CoverageXmlStream.MetricFractionMapConverter;
+import io.jenkins.plugins.coverage.metrics.steps.LineDataStore.AttachingStream;
 import io.jenkins.plugins.forensics.reference.ReferenceBuild;
 import io.jenkins.plugins.util.AbstractXmlStream;
 import io.jenkins.plugins.util.BuildAction;
@@ -109,6 +117,29 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
     @SuppressWarnings("serial")
     private final List<? extends Value> indirectCoverageChanges;
 
+    /** The resources used by the individual phases of the recording. */
+    private /* almost final */ PhaseTimings phaseTimings; // since 2.x
+
+    /** The digest of the content of the coverage tree, see {@link CoverageDigest}. */
+    private /* almost final */ String contentDigest; // since 2.x
+
+    /** The file format of the persisted coverage tree. */
+    private /* almost final */ ResultFormat resultFormat; // since 2.x
+
+    /**
+     * Determines whether the coverage tree has been persisted as skeleton with a separate {@link LineDataStore}. Builds
+     * that have been recorded before the store has been introduced contain the line data in the coverage tree. Note that
+     * older plugin versions cannot attach the line data to such a skeleton, after a downgrade these builds show the
+     * aggregated values only.
+     */
+    private /* almost final */ boolean lineDataSeparated; // since 2.x
+
+    /**
+     * Determines whether the coverage tree has been persisted in the binary format with an index of its files, so that
+     * individual files can be loaded without loading the whole tree (see {@link CoverageBinaryStream}).
+     */
+    private /* almost final */ boolean subtreesIndexed; // since 2.x
+
     static {
         CoverageXmlStream.registerConverters(XSTREAM2);
 
@@ -145,8 +176,34 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
      */
     public CoverageBuildAction(final Run<?, ?> owner, final String id, final String optionalName, final String icon,
             final Node result, final QualityGateResult qualityGateResult, final FilteredLog log) {
+        this(owner, id, optionalName, icon, result, qualityGateResult, log, new PhaseTimings());
+    }
+
+    /**
+     * Creates a new instance of {@link CoverageBuildAction}.
+     *
+     * @param owner
+     *         the associated build that created the statistics
+     * @param id
+     *         ID (URL) of the results
+     * @param optionalName
+     *         optional name that overrides the default name of the results
+     * @param icon
+     *         name of the icon that should be used in actions and views
+     * @param result
+     *         the coverage tree as a result to persist with this action
+     * @param qualityGateResult
+     *         status of the quality gates
+     * @param log
+     *         the logging statements of the recording step
+     * @param phaseTimings
+     *         the resources used by the individual phases of the recording step
+     */
+    public CoverageBuildAction(final Run<?, ?> owner, final String id, final String optionalName, final String icon,
+            final Node result, final QualityGateResult qualityGateResult, final FilteredLog log,
+            final PhaseTimings phaseTimings) {
         this(owner, id, optionalName, icon, result, qualityGateResult, log,
-                NO_REFERENCE_BUILD, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES);
+                NO_REFERENCE_BUILD, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, phaseTimings);
     }
 
     /**
@@ -191,11 +248,62 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
             final List<? extends Value> modifiedFilesCoverage,
             final List<? extends Difference> modifiedFilesCoverageDifference,
             final List<? extends Value> indirectCoverageChanges) {
+        this(owner, id, optionalName, icon, result, qualityGateResult, log, referenceBuildId, delta,
+                modifiedLinesCoverage,
+                modifiedLinesCoverageDifference, modifiedFilesCoverage, modifiedFilesCoverageDifference,
+                indirectCoverageChanges, new PhaseTimings());
+    }
+
+    /**
+     * Creates a new instance of {@link CoverageBuildAction}.
+     *
+     * @param owner
+     *         the associated build that created the statistics
+     * @param id
+     *         ID (URL) of the results
+     * @param optionalName
+     *         optional name that overrides the default name of the results
+     * @param icon
+     *         name of the icon that should be used in actions and views
+     * @param result
+     *         the coverage tree as a result to persist with this action
+     * @param qualityGateResult
+     *         status of the quality gates
+     * @param log
+     *         the logging statements of the recording step
+     * @param referenceBuildId
+     *         the ID of the reference build
+     * @param delta
+     *         delta of this build's coverages with respect to the reference build
+     * @param modifiedLinesCoverage
+     *         the coverages filtered by modified lines of the associated change request
+     * @param modifiedLinesCoverageDifference
+     *         difference between the project coverage and the modified lines coverage of the current build
+     * @param modifiedFilesCoverage
+     *         the coverages filtered by changed files of the associated change request
+     * @param modifiedFilesCoverageDifference
+     *         difference between the project coverage and the modified files coverage of the current build
+     * @param indirectCoverageChanges
+     *         the indirect coverage changes of the associated change request with respect to the reference build
+     * @param phaseTimings
+     *         the resources used by the individual phases of the recording step
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public CoverageBuildAction(final Run<?, ?> owner, final String id, final String optionalName, final String icon,
+            final Node result, final QualityGateResult qualityGateResult, final FilteredLog log,
+            final String referenceBuildId,
+            final List<? extends Difference> delta,
+            final List<? extends Value> modifiedLinesCoverage,
+            final List<? extends Difference> modifiedLinesCoverageDifference,
+            final List<? extends Value> modifiedFilesCoverage,
+            final List<? extends Difference> modifiedFilesCoverageDifference,
+            final List<? extends Value> indirectCoverageChanges,
+            final PhaseTimings phaseTimings) {
         this(owner, id, optionalName, icon, result, qualityGateResult, log, referenceBuildId, delta,
                 modifiedLinesCoverage,
                 modifiedLinesCoverageDifference, modifiedFilesCoverage, modifiedFilesCoverageDifference,
                 indirectCoverageChanges,
-                true);
+                true, phaseTimings);
     }
 
     @VisibleForTesting
@@ -210,6 +318,22 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
             final List<? extends Difference> modifiedFilesDifferences,
             final List<? extends Value> indirectCoverageChanges,
             final boolean canSerialize) {
+        this(owner, id, name, icon, result, qualityGateResult, log, referenceBuildId, differences,
+                modifiedLinesCoverage, modifiedLinesDifferences, modifiedFilesCoverage, modifiedFilesDifferences,
+                indirectCoverageChanges, canSerialize, new PhaseTimings());
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private CoverageBuildAction(final Run<?, ?> owner, final String id, final String name, final String icon,
+            final Node result, final QualityGateResult qualityGateResult, final FilteredLog log,
+            final String referenceBuildId,
+            final List<? extends Difference> differences,
+            final List<? extends Value> modifiedLinesCoverage,
+            final List<? extends Difference> modifiedLinesDifferences,
+            final List<? extends Value> modifiedFilesCoverage,
+            final List<? extends Difference> modifiedFilesDifferences,
+            final List<? extends Value> indirectCoverageChanges,
+            final boolean canSerialize, final PhaseTimings phaseTimings) {
         super(owner, result, false);
 
         VALIDATION_UTILITIES.ensureValidId(id);
@@ -229,9 +353,50 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
         this.modifiedFilesCoverage = copy(modifiedFilesCoverage);
         this.modifiedFilesDifferences = copy(modifiedFilesDifferences);
         this.indirectCoverageChanges = copy(indirectCoverageChanges);
+        this.phaseTimings = phaseTimings;
+        this.contentDigest = StringUtils.EMPTY;
+        this.resultFormat = ResultFormat.getDefault();
 
         if (canSerialize) {
-            createXmlStream().write(owner.getRootDir().toPath().resolve(getBuildResultBaseName()), result);
+            contentDigest = writeResult(result);
+            new IndexXmlStream().write(owner.getRootDir().toPath().resolve(getReferenceIndexBaseName()),
+                    CoverageReferenceIndex.of(result));
+        }
+    }
+
+    /**
+     * Writes the coverage tree in the layout of the configured result format. If the compact layout cannot be
+     * written, then the complete tree is stored instead, so that this action never refers to an incomplete layout.
+     *
+     * @param result
+     *         the coverage tree to write
+     *
+     * @return the digest of the content of the coverage tree
+     */
+    private String writeResult(final Node result) {
+        var rootDir = getOwner().getRootDir().toPath();
+        var stream = resultFormat.createStream();
+        try {
+            var digest = new CoverageDigest(); // computed while the line data is written
+            if (stream instanceof CoverageXmlStream xmlStream) {
+                LineDataStore.write(rootDir.resolve(getLineDataBaseName()), result, digest);
+                xmlStream.writeSkeleton(rootDir.resolve(getBuildResultBaseName()), result);
+                lineDataSeparated = true;
+            }
+            else {
+                new CoverageBinaryStream().write(rootDir.resolve(getBuildResultBaseName()), result, digest);
+                subtreesIndexed = true;
+            }
+            return digest.getValue(projectValues);
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Failed to write the coverage tree in the compact layout of format %s",
+                    resultFormat);
+            if (resultFormat == ResultFormat.BINARY) {
+                resultFormat = ResultFormat.XML_GZIP;
+            }
+            resultFormat.createStream().write(rootDir.resolve(getBuildResultBaseName()), result); // complete tree
+            return CoverageDigest.of(result);
         }
     }
 
@@ -264,6 +429,15 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
         if (modifiedLinesDifferences == null) { // before 2.0
             modifiedLinesDifferences = new ArrayList<>(modifiedLinesCoverageDifference.values());
         }
+        if (phaseTimings == null) { // before 2.x
+            phaseTimings = new PhaseTimings();
+        }
+        if (contentDigest == null) { // before 2.x
+            contentDigest = StringUtils.EMPTY;
+        }
+        if (resultFormat == null) { // before 2.x
+            resultFormat = ResultFormat.XML;
+        }
 
         return this;
     }
@@ -281,6 +455,26 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
         return log;
     }
 
+    /**
+     * Returns the resources that have been used by the individual phases of the recording step.
+     *
+     * @return the resources of the recording phases
+     */
+    public PhaseTimings getPhaseTimings() {
+        return phaseTimings;
+    }
+
+    /**
+     * Returns the digest of the content of the coverage tree. Two builds with the same digest provide the same
+     * coverage results.
+     *
+     * @return the digest, or an empty string if the build has been recorded before the digest has been introduced or
+     *         if the coverage tree has not been persisted
+     */
+    public String getContentDigest() {
+        return contentDigest;
+    }
+
     public QualityGateResult getQualityGateResult() {
         return qualityGateResult;
     }
@@ -676,7 +870,11 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
 
     @Override
     protected AbstractXmlStream<Node> createXmlStream() {
-        return new CoverageXmlStream();
+        if (lineDataSeparated) {
+            return new CachingStream(getOwner(), new AttachingStream(resultFormat.createStream(),
+                    getOwner().getRootDir().toPath().resolve(getLineDataBaseName())));
+        }
+        return new CachingStream(getOwner(), resultFormat.createStream());
     }
 
     @Override
@@ -686,13 +884,93 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
 
     @Override
     protected String getBuildResultBaseName() {
-        return "%s.xml".formatted(id);
+        var fileName = resultFormat.getFileName(id);
+        var alternative = resultFormat.getAlternative().getFileName(id);
+        var rootDir = getOwner().getRootDir().toPath();
+        if (!Files.exists(rootDir.resolve(fileName)) && Files.exists(rootDir.resolve(alternative))) {
+            return alternative; // the file has been compressed or decompressed after the build
+        }
+        return fileName;
+    }
+
+    private String getLineDataBaseName() {
+        return "%s-lines.cov".formatted(id);
+    }
+
+    private Path getResultFile() {
+        return getOwner().getRootDir().toPath().resolve(getBuildResultBaseName());
+    }
+
+    private Path getLineDataFile() {
+        return getOwner().getRootDir().toPath().resolve(getLineDataBaseName());
+    }
+
+    /**
+     * Returns the coverage tree without the line data of the files, i.e., the covered and missed items per line are
+     * not available. The tree provides the aggregated values of all nodes, the mutations, the modified lines, and the
+     * indirect coverage changes. Builds that have been recorded before the line data has been stored separately
+     * return the complete tree.
+     *
+     * @return the coverage tree without line data
+     * @see #getResult()
+     */
+    public Node getResultWithoutLineData() {
+        if (!lineDataSeparated) {
+            return getResult();
+        }
+        var resultFile = getResultFile();
+        return CoverageTreeCache.getInstance().getDerived(getOwner(), "skeleton:" + resultFile.getFileName(),
+                () -> resultFormat.createStream().read(resultFile));
+    }
+
+    /**
+     * Returns the coverage tree that is rendered in the coverage view. Only the files with modified lines or indirect
+     * coverage changes get their line data, since these files are shown in the modified lines and indirect coverage
+     * changes views. All other files require the aggregated values only.
+     *
+     * @return the coverage tree for the view
+     */
+    private Node getViewResult() {
+        var tree = getResultWithoutLineData();
+        if (!lineDataSeparated || tree.getAllFileNodes().stream().noneMatch(CoverageBuildAction::requiresLineData)) {
+            return tree;
+        }
+        return CoverageTreeCache.getInstance().getDerived(getOwner(), "view:" + getBuildResultBaseName(), () -> {
+            var copy = tree.copyTree();
+            LineDataStore.attach(getLineDataFile(), copy, CoverageBuildAction::requiresLineData);
+            return copy;
+        });
+    }
+
+    private static boolean requiresLineData(final FileNode file) {
+        return file.hasModifiedLines() || !file.getIndirectCoverageChanges().isEmpty();
+    }
+
+    private String getReferenceIndexBaseName() {
+        return "%s-reference-index.xml".formatted(id);
+    }
+
+    /**
+     * Returns the coverage tree that should be used when this build serves as reference build. If a compact reference
+     * index has been persisted for this build, then a lightweight tree with the line counters and aggregated values
+     * of the files is created from the index. Otherwise (builds recorded before the index has been introduced),
+     * the full coverage tree is loaded.
+     *
+     * @return the coverage tree for reference comparisons
+     */
+    Node getReferenceResult() {
+        var index = getOwner().getRootDir().toPath().resolve(getReferenceIndexBaseName());
+        if (Files.isReadable(index)) {
+            return CoverageTreeCache.getInstance().getDerived(getOwner(), "reference:" + index.getFileName(),
+                    () -> new IndexXmlStream().read(index).toTree());
+        }
+        return getResult();
     }
 
     @Override
     public CoverageViewModel getTarget() {
-        return new CoverageViewModel(getOwner(), getUrlName(), name, getResult(),
-                getStatistics(), getQualityGateResult(), getReferenceBuildLink(), log,
+        return new CoverageViewModel(getOwner(), getUrlName(), name, new BuildResultLoader(),
+                getStatistics(), getQualityGateResult(), getReferenceBuildLink(), log, getPhaseTimings(),
                 this::createCoverageModel, this::createMetricsModel);
     }
 
@@ -726,4 +1004,39 @@ public final class CoverageBuildAction extends BuildAction<Node> implements Stap
     public String toString() {
         return "%s (%s): %s".formatted(getDisplayName(), getUrlName(), projectValues);
     }
+
+    /**
+     * Loads the parts of the coverage tree of this action that are rendered by the views. Views that show a single
+     * file or the modified files do not load the line data of all files: the line data is read from the
+     * {@link LineDataStore} for the selected files only, or the selected blocks are read from the index of the
+     * {@link CoverageBinaryStream binary format}. All other views use the tree without line data, including the views
+     * of modules and packages: their subtrees are not loaded separately.
+     */
+    private class BuildResultLoader implements ResultLoader {
+        @Override
+        public Node getTree() {
+            return getViewResult();
+        }
+
+        @Override
+        public Optional<FileNode> findFile(final int pathHash) {
+            if (subtreesIndexed) {
+                return new CoverageBinaryStream().readFile(getResultFile(), pathHash);
+            }
+            if (lineDataSeparated) {
+                return LineDataStore.readFile(getLineDataFile(), getResultWithoutLineData(),
+                        file -> file.getRelativePath().hashCode() == pathHash);
+            }
+            return ResultLoader.of(getResult()).findFile(pathHash);
+        }
+
+        @Override
+        public Node getModifiedFiles() {
+            if (subtreesIndexed) {
+                return CoverageTreeCache.getInstance().getDerived(getOwner(), "modified:" + getBuildResultBaseName(),
+                        () -> new CoverageBinaryStream().readModifiedFiles(getResultFile()));
+            }
+            return getViewResult();
+        }
+    }
 }
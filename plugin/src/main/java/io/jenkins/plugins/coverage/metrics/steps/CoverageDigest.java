@@ -0,0 +1,108 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+
+/**
+ * Computes a SHA-256 digest of the content of a coverage tree. The digest covers the aggregated values of the tree and
+ * the relative path and the covered and missed items per line of each file. Two trees with the same digest provide the
+ * same coverage results, even if the underlying report files differ in formatting or in the order of the elements.
+ *
+ * <p>
+ * The files can be added incrementally in any order, so that the digest can be computed while the line data of the
+ * files is written anyway (see {@link LineDataStore} and {@link CoverageBinaryStream}).
+ * </p>
+ */
+final class CoverageDigest {
+    private final List<FileDigest> files = new ArrayList<>();
+
+    /**
+     * Computes the digest of the specified coverage tree.
+     *
+     * @param root
+     *         the root of the coverage tree
+     *
+     * @return the digest as hex string
+     */
+    static String of(final Node root) {
+        var digest = new CoverageDigest();
+        root.getAllFileNodes().forEach(digest::add);
+        return digest.getValue(root.aggregateValues());
+    }
+
+    /**
+     * Adds the line counters of the specified file to this digest.
+     *
+     * @param file
+     *         the file to add
+     */
+    void add(final FileNode file) {
+        add(file.getRelativePath(), LineCounters.of(file));
+    }
+
+    /**
+     * Adds the line counters of a file to this digest.
+     *
+     * @param relativePath
+     *         the relative path of the file
+     * @param counters
+     *         the covered and missed items per line of the file
+     */
+    void add(final String relativePath, final LineCounters counters) {
+        var digest = createDigest();
+        update(digest, counters.serialize());
+        files.add(new FileDigest(relativePath, digest.digest()));
+    }
+
+    /**
+     * Returns the digest of all added files and the specified aggregated values of the coverage tree.
+     *
+     * @param values
+     *         the aggregated values of the coverage tree
+     *
+     * @return the digest as hex string
+     */
+    String getValue(final List<? extends Value> values) {
+        var digest = createDigest();
+        for (Value value : values) {
+            update(digest, value.serialize());
+        }
+        files.stream()
+                .sorted(Comparator.comparing(FileDigest::relativePath)
+                        .thenComparing(FileDigest::hash, Arrays::compare))
+                .forEach(file -> {
+                    update(digest, file.relativePath());
+                    digest.update(file.hash());
+                });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    private record FileDigest(String relativePath, byte[] hash) {
+    }
+}
@@ -2,12 +2,10 @@ package io.jenkins.plugins.coverage.metrics.steps;
 
 import org.apache.commons.lang3.StringUtils;
 
-import edu.hm.hafner.coverage.ClassNode;
 import edu.hm.hafner.coverage.ContainerNode;
 import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.Node;
-import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.TreeStringBuilder;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -22,6 +20,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
@@ -51,11 +50,14 @@ import hudson.util.FormValidation.Kind;
 import hudson.util.ListBoxModel;
 import jenkins.model.Jenkins;
 
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings;
 import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.Parser;
 import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.ParserType;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageToolsScanner.ToolResult;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageToolsScanner.ToolScan;
+import io.jenkins.plugins.coverage.metrics.steps.ResolvedPathsStore.ResolvedPaths;
 import io.jenkins.plugins.prism.SourceCodeDirectory;
 import io.jenkins.plugins.prism.SourceCodeRetention;
-import io.jenkins.plugins.util.AgentFileVisitor.FileVisitorResult;
 import io.jenkins.plugins.util.EnvironmentResolver;
 import io.jenkins.plugins.util.JenkinsFacade;
 import io.jenkins.plugins.util.LogHandler;
@@ -79,6 +81,9 @@ public class CoverageRecorder extends Recorder {
     static final String CHECKS_DEFAULT_NAME = "Code Coverage";
 
     static final String DEFAULT_ID = "coverage";
+    static final String PHASE_PARSING = "Scanning and parsing";
+    static final String PHASE_AGGREGATION = "Aggregating results";
+    static final String PHASE_PATH_RESOLVING = "Resolving source paths";
     private static final ValidationUtilities VALIDATION_UTILITIES = new ValidationUtilities();
     /** The coverage report symbol from the Ionicons plugin. */
     private static final String ICON = "symbol-footsteps-outline plugin-ionicons-api";
@@ -94,6 +99,8 @@ public class CoverageRecorder extends Recorder {
     private boolean failOnError = false;
     private boolean enabledForFailure = false;
     private boolean skipSymbolicLinks = false;
+    private int parsingThreads = 1;
+    private boolean cacheParsedReports = false;
     private String scm = StringUtils.EMPTY;
     private String sourceCodeEncoding = StringUtils.EMPTY;
     private Set<SourceCodeDirectory> sourceDirectories = new HashSet<>();
@@ -251,6 +258,39 @@ public class CoverageRecorder extends Recorder {
         return skipSymbolicLinks;
     }
 
+    /**
+     * Sets the maximum number of report files that will be parsed in parallel. This limit covers all coverage tools:
+     * if several tools are configured, then the threads are split across the tools. If set to 1, then the report files
+     * of all tools will be parsed sequentially.
+     *
+     * @param parsingThreads
+     *         the maximum number of threads that will parse the report files
+     */
+    @DataBoundSetter
+    public void setParsingThreads(final int parsingThreads) {
+        this.parsingThreads = parsingThreads;
+    }
+
+    public int getParsingThreads() {
+        return Math.max(1, parsingThreads);
+    }
+
+    /**
+     * Determines whether parsed reports should be cached on the agent. Report files with a content that has been parsed
+     * before with the same parser will not be parsed again, the cached result will be used instead.
+     *
+     * @param cacheParsedReports
+     *         {@code true} if parsed reports should be cached, {@code false} otherwise
+     */
+    @DataBoundSetter
+    public void setCacheParsedReports(final boolean cacheParsedReports) {
+        this.cacheParsedReports = cacheParsedReports;
+    }
+
+    public boolean isCacheParsedReports() {
+        return cacheParsedReports;
+    }
+
     /**
      * Specify if parsing errors should be ignored and logged instead of throwing an exception.
      *
@@ -415,8 +455,16 @@ public class CoverageRecorder extends Recorder {
 
     private void perform(final Run<?, ?> run, final FilePath workspace, final TaskListener taskListener,
             final ResultHandler resultHandler, final FilteredLog log, final LogHandler logHandler) throws InterruptedException {
-        var results = recordCoverageResults(run, workspace, resultHandler, log, logHandler);
-        var aggregatedResult = aggregateResults(log, results);
+        var timings = new PhaseTimings();
+
+        Map<Parser, List<Node>> results;
+        try (var ignored = timings.start(PHASE_PARSING)) {
+            results = recordCoverageResults(run, workspace, resultHandler, log, logHandler);
+        }
+        Node aggregatedResult;
+        try (var ignored = timings.start(PHASE_AGGREGATION)) {
+            aggregatedResult = aggregateResults(log, results);
+        }
 
         if (!aggregatedResult.isEmpty()) {
             var reporter = new CoverageReporter();
@@ -424,12 +472,14 @@ public class CoverageRecorder extends Recorder {
             var sources = aggregatedResult.getSourceFolders();
             sources.addAll(getSourceDirectoriesPaths());
 
-            resolveAbsolutePaths(aggregatedResult, workspace, sources, log);
+            try (var ignored = timings.start(PHASE_PATH_RESOLVING)) {
+                resolveAbsolutePaths(run, aggregatedResult, workspace, sources, log);
+            }
             logHandler.log(log);
 
             var action = reporter.publishAction(getActualId(), getName(), getIcon(), aggregatedResult, run,
                     workspace, taskListener, getQualityGates(), getScm(),
-                    getSourceCodeEncoding(), getSourceCodeRetention(), resultHandler, log);
+                    getSourceCodeEncoding(), getSourceCodeRetention(), resultHandler, log, timings);
 
             if (!skipPublishingChecks) {
                 var checksPublisher = new CoverageChecksPublisher(action, aggregatedResult, getChecksName(), getChecksAnnotationScope());
@@ -439,11 +489,34 @@ public class CoverageRecorder extends Recorder {
         logHandler.log(log);
     }
 
-    private void resolveAbsolutePaths(final Node rootNode, final FilePath workspace, final Set<String> sources,
-            final FilteredLog log) throws InterruptedException {
+    private void resolveAbsolutePaths(final Run<?, ?> run, final Node rootNode, final FilePath workspace,
+            final Set<String> sources, final FilteredLog log) throws InterruptedException {
         log.logInfo("Resolving source code files...");
-        var pathMapping = new PathResolver().resolvePaths(rootNode.getFiles(), sources, workspace, log);
+        var job = run.getParent();
+        var store = new ResolvedPathsStore();
+        var previous = job == null ? new ResolvedPaths(sources, Map.of(), Set.of())
+                : store.load(job, getActualId(), sources, log);
+
+        var files = rootNode.getFiles();
+        Set<String> relativePaths = new HashSet<>(files);
+        relativePaths.removeAll(previous.getUnresolvedPaths());
+        if (relativePaths.size() < files.size()) {
+            log.logInfo("-> skipping %d source paths that could not be resolved in the previous build",
+                    files.size() - relativePaths.size());
+        }
+        var resolvedPaths = new PathResolver().resolveAllPaths(relativePaths, sources, workspace,
+                previous.getMapping(), !isSkipSymbolicLinks(), log);
+
+        Set<String> unresolvedPaths = new HashSet<>(files);
+        unresolvedPaths.removeAll(resolvedPaths.keySet());
+        if (job != null && (!resolvedPaths.equals(previous.getMapping())
+                || !unresolvedPaths.equals(previous.getUnresolvedPaths()))) {
+            store.save(job, getActualId(), sources, resolvedPaths, unresolvedPaths, log);
+        }
 
+        var pathMapping = resolvedPaths.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(entry.getValue()))
+                .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
         if (!pathMapping.isEmpty()) {
             log.logInfo("Making paths of " + pathMapping.size() + " source code files relative to workspace root...");
             var builder = new TreeStringBuilder();
@@ -477,30 +550,43 @@ public class CoverageRecorder extends Recorder {
         logHandler.log(log);
     }
 
-    private Map<Parser, List<ModuleNode>> recordCoverageResults(final Run<?, ?> run, final FilePath workspace,
+    private Map<Parser, List<Node>> recordCoverageResults(final Run<?, ?> run, final FilePath workspace,
             final ResultHandler resultHandler, final FilteredLog log, final LogHandler logHandler) throws InterruptedException {
-        Map<Parser, List<ModuleNode>> results = new EnumMap<>(Parser.class);
+        Map<Parser, List<Node>> results = new EnumMap<>(Parser.class);
 
+        List<ToolScan> scans = new ArrayList<>();
+        List<FilteredLog> toolLogs = new ArrayList<>();
         for (CoverageTool tool : tools) {
+            var toolLog = new FilteredLog("Errors while recording code coverage:");
             var parser = tool.getParser();
-            log.logInfo("Creating parser for %s", tool.getDisplayName());
+            toolLog.logInfo("Creating parser for %s", tool.getDisplayName());
             if (StringUtils.isBlank(tool.getPattern())) {
-                log.logInfo("Using default pattern '%s' since user defined pattern is not set",
+                toolLog.logInfo("Using default pattern '%s' since user defined pattern is not set",
                         parser.getDefaultPattern());
             }
 
             var expandedPattern = expandPattern(run, tool.getActualPattern());
             if (!expandedPattern.equals(tool.getActualPattern())) {
-                log.logInfo("Expanding pattern '%s' to '%s'", tool.getActualPattern(), expandedPattern);
+                toolLog.logInfo("Expanding pattern '%s' to '%s'", tool.getActualPattern(), expandedPattern);
             }
+            scans.add(new ToolScan(parser, expandedPattern));
+            toolLogs.add(toolLog);
+        }
 
-            try {
-                FileVisitorResult<ModuleNode> result = workspace.act(
-                        new CoverageReportScanner(parser, expandedPattern, "UTF-8", !isSkipSymbolicLinks(),
-                                ignoreErrors()));
+        try {
+            List<ToolResult> toolResults = workspace.act(
+                    new CoverageToolsScanner(scans, "UTF-8", !isSkipSymbolicLinks(), ignoreErrors(),
+                            getParsingThreads(), isCacheParsedReports()));
+
+            for (int i = 0; i < tools.size(); i++) {
+                var result = toolResults.get(i);
+                log.merge(toolLogs.get(i));
                 log.merge(result.getLog());
 
-                var coverageResults = result.getResults();
+                if (result.isFailed()) {
+                    logHandler.log(log);
+                    continue; // the exception has been logged already, the results of the other tools are kept
+                }
                 if (result.hasErrors()) {
                     if (isFailOnError()) {
                         var errorMessage = "Failing build due to some errors during recording of the coverage";
@@ -511,11 +597,14 @@ public class CoverageRecorder extends Recorder {
                         log.logInfo("Ignore errors and continue processing");
                     }
                 }
-                results.put(tool.getParser(), coverageResults);
-            }
-            catch (IOException exception) {
-                log.logException(exception, "Exception while parsing with tool " + tool);
+                results.put(tools.get(i).getParser(), result.getResults());
+
+                logHandler.log(log);
             }
+        }
+        catch (IOException exception) {
+            toolLogs.forEach(log::merge);
+            log.logException(exception, "Exception while parsing with tools " + tools);
 
             logHandler.log(log);
         }
@@ -523,7 +612,7 @@ public class CoverageRecorder extends Recorder {
         return results;
     }
 
-    private Node aggregateResults(final FilteredLog log, final Map<Parser, List<ModuleNode>> results) {
+    private Node aggregateResults(final FilteredLog log, final Map<Parser, List<Node>> results) {
         if (isEmpty(results)) {
             log.logError("No coverage results were found! Configuration error?");
 
@@ -543,6 +632,7 @@ public class CoverageRecorder extends Recorder {
                     .filter(entry -> entry.getKey().getParserType() == ParserType.COVERAGE)
                     .map(Entry::getValue)
                     .flatMap(Collection::stream)
+                    .flatMap(this::getMergedModules)
                     .collect(Collectors.toList());
             var metricsNodes = results.entrySet()
                     .stream()
@@ -559,7 +649,7 @@ public class CoverageRecorder extends Recorder {
                 return tests;
             }
 
-            var coverageTree = Node.merge(coverageNodes);
+            var coverageTree = new ParallelNodeMerger().merge(coverageNodes);
 
             if (!metricsNodes.isEmpty()) {
                 var metrics = new ContainerNode("Metrics");
@@ -568,28 +658,31 @@ public class CoverageRecorder extends Recorder {
             }
 
             if (!testCases.isEmpty()) {
-                var unmappedNodes = coverageTree.mergeTests(testCases);
-                unmappedNodes.forEach(node -> mapTests(node, coverageTree));
+                new TestClassMapper().mapTests(coverageTree, testCases);
             }
 
             return coverageTree;
         }
     }
 
-    private void mapTests(final ClassNode classNode, final Node coverageTree) {
-        var normalizedPackageName = PackageNode.normalizePackageName(classNode.getPackageName());
-
-        coverageTree.findPackage(normalizedPackageName)
-                .orElseGet(() -> createPackage(coverageTree, normalizedPackageName)).addChild(classNode);
-    }
-
-    private PackageNode createPackage(final Node coverageTree, final String normalizedPackageName) {
-        var packageNode = new PackageNode(normalizedPackageName);
-        coverageTree.addChild(packageNode);
-        return packageNode;
+    /**
+     * Returns the modules of a coverage tree that has been merged on the agent. If the modules of a coverage tool have
+     * different names, the merged tree is a container of these modules. Such a container is dissolved again so that
+     * the modules of all tools are merged on the same level.
+     *
+     * @param node
+     *         the coverage tree of a tool
+     *
+     * @return the modules of the tree
+     */
+    private Stream<Node> getMergedModules(final Node node) {
+        if (node instanceof ContainerNode) {
+            return node.getChildren().stream();
+        }
+        return Stream.of(node);
     }
 
-    private boolean isEmpty(final Map<Parser, List<ModuleNode>> results) {
+    private boolean isEmpty(final Map<Parser, List<Node>> results) {
         return results.values().stream().mapToInt(Collection::size).sum() == 0;
     }
 
@@ -0,0 +1,181 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.PackageNode;
+import edu.hm.hafner.coverage.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import hudson.util.XStream2;
+
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageXmlStream.IntegerLineMapConverter;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageXmlStream.LineCountersConverter;
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * A compact index of the coverage tree of a build that contains only the information that is required to compare the
+ * individual files of a build with the files of the reference build: the covered and missed items per line of each
+ * file and the aggregated values of each file. The line counters are stored as packed primitive arrays, see
+ * {@link LineCounters}. Modules, classes, methods, mutations, and tests are not part of the index. The index is
+ * persisted next to the full coverage tree and can be converted into a lightweight tree of packages and files. Since
+ * this tree does not have the structure of the original tree, its aggregated values differ from the values of the
+ * reference build: the overall delta is computed from the aggregated values that are persisted in the
+ * {@link CoverageBuildAction action} of the reference build.
+ */
+@SuppressWarnings("PMD.LooseCoupling")
+final class CoverageReferenceIndex {
+    private final String name;
+    private final List<FileEntry> files;
+
+    /**
+     * Creates an index of the specified coverage tree.
+     *
+     * @param root
+     *         the root of the coverage tree
+     *
+     * @return the index
+     */
+    static CoverageReferenceIndex of(final Node root) {
+        List<FileEntry> files = new ArrayList<>();
+        for (FileNode file : root.getAllFileNodes()) {
+            files.add(new FileEntry(file));
+        }
+        return new CoverageReferenceIndex(root.getName(), files);
+    }
+
+    private CoverageReferenceIndex(final String name, final List<FileEntry> files) {
+        this.name = name;
+        this.files = files;
+    }
+
+    /**
+     * Returns the number of indexed files.
+     *
+     * @return the number of files
+     */
+    int size() {
+        return files.size();
+    }
+
+    /**
+     * Creates a lightweight coverage tree from this index. The tree contains a root node, the package nodes, and the
+     * file nodes with their line counters and aggregated values. The tree should be used to look up individual files
+     * only, packages with the same name in different modules are merged.
+     *
+     * @return the coverage tree
+     */
+    Node toTree() {
+        var root = new ModuleNode(name);
+        Map<String, PackageNode> packages = new LinkedHashMap<>();
+        for (FileEntry entry : files) {
+            var file = entry.toFileNode();
+            if (entry.packageName.isEmpty()) {
+                root.addChild(file);
+            }
+            else {
+                packages.computeIfAbsent(entry.packageName, packageName -> {
+                    var packageNode = new PackageNode(packageName);
+                    root.addChild(packageNode);
+                    return packageNode;
+                }).addChild(file);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * The coverage information of a single file.
+     */
+    static final class FileEntry {
+        private final String packageName;
+        private final String fileName;
+        private final String relativePath;
+        private /* almost final */ LineCounters counters; // since 2.x
+        private final ArrayList<Value> values;
+
+        /** Counters of indexes that have been written before 2.x, replaced by {@link #counters}. */
+        @Deprecated
+        private TreeMap<Integer, Integer> coveredPerLine;
+        /** Counters of indexes that have been written before 2.x, replaced by {@link #counters}. */
+        @Deprecated
+        private TreeMap<Integer, Integer> missedPerLine;
+
+        FileEntry(final FileNode file) {
+            packageName = !file.isRoot() && file.getParent() instanceof PackageNode p ? p.getName() : "";
+            fileName = file.getName();
+            relativePath = file.getRelativePath();
+            counters = LineCounters.of(file);
+            values = new ArrayList<>(file.aggregateValues());
+        }
+
+        /**
+         * Called after de-serialization to convert the counters of old indexes.
+         *
+         * @return this
+         */
+        @SuppressWarnings("deprecation")
+        Object readResolve() {
+            if (counters == null) {
+                var covered = coveredPerLine == null ? new TreeMap<Integer, Integer>() : coveredPerLine;
+                var missed = missedPerLine == null ? new TreeMap<Integer, Integer>() : missedPerLine;
+                var lines = new int[covered.size()];
+                var coveredCounters = new int[lines.length];
+                var missedCounters = new int[lines.length];
+                int index = 0;
+                for (var entry : covered.entrySet()) {
+                    lines[index] = entry.getKey();
+                    coveredCounters[index] = entry.getValue();
+                    missedCounters[index] = missed.getOrDefault(entry.getKey(), 0);
+                    index++;
+                }
+                counters = LineCounters.of(lines, coveredCounters, missedCounters);
+                coveredPerLine = null;
+                missedPerLine = null;
+            }
+            return this;
+        }
+
+        FileNode toFileNode() {
+            var file = new FileNode(fileName, relativePath);
+            counters.addTo(file);
+            values.forEach(file::addValue);
+            return file;
+        }
+    }
+
+    /**
+     * Configures the XML stream for the {@link CoverageReferenceIndex}.
+     */
+    static class IndexXmlStream extends AbstractXmlStream<CoverageReferenceIndex> {
+        /**
+         * Creates an XML stream for {@link CoverageReferenceIndex}.
+         */
+        IndexXmlStream() {
+            super(CoverageReferenceIndex.class);
+        }
+
+        @Override
+        protected void configureXStream(final XStream2 xStream) {
+            CoverageXmlStream.registerConverters(xStream);
+
+            xStream.alias("referenceIndex", CoverageReferenceIndex.class);
+            xStream.alias("file", FileEntry.class);
+
+            xStream.registerLocalConverter(FileEntry.class, "counters", new LineCountersConverter());
+            xStream.registerLocalConverter(FileEntry.class, "coveredPerLine", new IntegerLineMapConverter());
+            xStream.registerLocalConverter(FileEntry.class, "missedPerLine", new IntegerLineMapConverter());
+        }
+
+        @Override
+        protected CoverageReferenceIndex createDefaultValue() {
+            return new CoverageReferenceIndex("Empty", new ArrayList<>());
+        }
+    }
+}
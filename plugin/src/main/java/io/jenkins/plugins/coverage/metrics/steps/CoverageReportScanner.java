@@ -4,17 +4,29 @@ import org.apache.commons.io.input.BOMInputStream;
 
 import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
 import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
 import edu.hm.hafner.util.SecureXmlParserFactory.ParsingException;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serial;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipFile;
 
 import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.Parser;
 import io.jenkins.plugins.util.AgentFileVisitor;
@@ -22,7 +34,8 @@ import io.jenkins.plugins.util.AgentFileVisitor;
 /**
  * Scans the workspace for coverage reports that match a specified Ant file pattern and parse these files with the
  * specified parser. Creates a new {@link ModuleNode} for each parsed file. For files that cannot be read, an empty
- * module node will be returned.
+ * module node will be returned. Report files that are compressed with gzip are decompressed while parsing. Each entry of
+ * a zip archive is parsed as a report of its own.
  *
  * @author Ullrich Hafner
  */
@@ -31,6 +44,7 @@ public class CoverageReportScanner extends AgentFileVisitor<ModuleNode> {
     private static final long serialVersionUID = 6940864958150044554L;
 
     private static final PathUtil PATH_UTIL = new PathUtil();
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     private final Parser parser;
     private final ProcessingMode processingMode;
@@ -57,19 +71,268 @@ public class CoverageReportScanner extends AgentFileVisitor<ModuleNode> {
         this.processingMode = processingMode;
     }
 
+    /**
+     * Parses the specified report files. If more than one parsing thread is requested, then the files are parsed
+     * concurrently using a bounded pool of worker threads. Each file is parsed with its own parser instance and logs
+     * into its own {@link FilteredLog}. These logs are merged in the order of the given files, so the console output
+     * does not depend on the scheduling of the workers.
+     *
+     * @param files
+     *         the files to parse
+     * @param charset
+     *         the charset of the files
+     * @param log
+     *         the log to merge the messages of the individual files into
+     * @param parsingThreads
+     *         the maximum number of files to parse in parallel
+     * @param useCache
+     *         determines whether the {@link ParsedReportCache} should be used to skip parsing of report files that
+     *         have been parsed before
+     *
+     * @return the parsed modules, in the order of the given files
+     * @throws InterruptedException
+     *         if the parsing has been interrupted
+     */
+    List<ModuleNode> processFiles(final List<Path> files, final Charset charset, final FilteredLog log,
+            final int parsingThreads, final boolean useCache) throws InterruptedException {
+        var counters = useCache ? new CacheCounters() : null;
+        var results = parseFiles(files, charset, log, parsingThreads, counters);
+        if (counters != null) {
+            var cache = ParsedReportCache.getInstance();
+            log.logInfo("Parse cache: %d hits, %d misses (cache contains %d reports with %d bytes)",
+                    counters.hits.get(), counters.misses.get(), cache.getEntries(), cache.getSize());
+        }
+        return results;
+    }
+
+    private List<ModuleNode> parseFiles(final List<Path> files, final Charset charset, final FilteredLog log,
+            final int parsingThreads, @CheckForNull final CacheCounters counters) throws InterruptedException {
+        List<ModuleNode> results = new ArrayList<>();
+        if (parsingThreads <= 1 || files.size() <= 1) {
+            for (Path file : files) {
+                results.addAll(processFileIfReadable(file, charset, log, counters));
+            }
+            return results;
+        }
+
+        var executor = Executors.newFixedThreadPool(Math.min(parsingThreads, files.size()));
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(executor.submit(() -> {
+                    var fileLog = new FilteredLog("Errors while parsing " + file + ":");
+                    return new FileResult(processFileIfReadable(file, charset, fileLog, counters), fileLog);
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                var result = getResult(futures.get(i), files.get(i), log);
+                if (result != null) {
+                    log.merge(result.log());
+                    results.addAll(result.modules());
+                }
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private FileResult getResult(final Future<FileResult> future, final Path file, final FilteredLog log)
+            throws InterruptedException {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException exception) {
+            log.logException(exception.getCause(), "Parsing of file '%s' failed due to an exception:", file);
+            return null;
+        }
+    }
+
+    private List<ModuleNode> processFileIfReadable(final Path file, final Charset charset, final FilteredLog log,
+            @CheckForNull final CacheCounters counters) {
+        if (!Files.isReadable(file)) {
+            log.logError("Skipping file '%s' because Jenkins has no permission to read the file",
+                    PATH_UTIL.getAbsolutePath(file));
+            return List.of();
+        }
+        if (isEmpty(file)) {
+            log.logError("Skipping file '%s' because it's empty", PATH_UTIL.getAbsolutePath(file));
+            return List.of();
+        }
+        if (counters == null) {
+            return parseReports(file, charset, log);
+        }
+        return parseReportsWithCache(file, charset, log, counters);
+    }
+
+    private List<ModuleNode> parseReportsWithCache(final Path file, final Charset charset, final FilteredLog log,
+            final CacheCounters counters) {
+        ParsedReportCache.Key key;
+        try {
+            key = ParsedReportCache.createKey(file, parser, processingMode);
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Computing the hash of file '%s' failed due to an exception:", file);
+            return List.of();
+        }
+
+        var cache = ParsedReportCache.getInstance();
+        var replayedLog = new FilteredLog("Errors while parsing " + file + ":");
+        var cached = cache.get(key, replayedLog);
+        if (cached.isPresent()) {
+            counters.hits.incrementAndGet();
+            log.logInfo("Reusing cached result for file '%s'", PATH_UTIL.getAbsolutePath(file));
+            log.merge(replayedLog);
+            return cached.get();
+        }
+
+        counters.misses.incrementAndGet();
+        var parserLog = new FilteredLog("Errors while parsing " + file + ":");
+        var parsed = parseReports(file, charset, parserLog);
+        log.merge(parserLog);
+        if (!parsed.isEmpty()) {
+            cache.put(key, parsed, parserLog);
+        }
+        return parsed;
+    }
+
+    private boolean isEmpty(final Path file) {
+        try {
+            return Files.size(file) <= 0;
+        }
+        catch (IOException exception) {
+            return true;
+        }
+    }
+
     @Override
     protected Optional<ModuleNode> processFile(final Path file, final Charset charset, final FilteredLog log) {
+        var modules = parseReports(file, charset, log);
+        if (modules.size() <= 1) {
+            return modules.stream().findFirst();
+        }
+        if (Node.merge(modules) instanceof ModuleNode module) {
+            return Optional.of(module);
+        }
+        log.logError("Skipping archive '%s' because it contains the reports of different modules",
+                PATH_UTIL.getAbsolutePath(file));
+        return Optional.empty();
+    }
+
+    /**
+     * Parses the reports in the specified file. Plain and gzip compressed files contain a single report, zip archives
+     * contain a report in each entry. Compressed reports are decompressed while parsing, no temporary files are
+     * created.
+     *
+     * @param file
+     *         the file to parse
+     * @param charset
+     *         the charset of the reports
+     * @param log
+     *         the log
+     *
+     * @return the parsed reports
+     */
+    private List<ModuleNode> parseReports(final Path file, final Charset charset, final FilteredLog log) {
+        try {
+            switch (Compression.of(file)) {
+                case GZIP -> {
+                    try (var input = new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+                        return parseReport(input, file.toString(), PATH_UTIL.getAbsolutePath(file), charset, log)
+                                .stream().toList();
+                    }
+                }
+                case ZIP -> {
+                    return parseArchive(file, charset, log);
+                }
+                default -> {
+                    try (var input = Files.newInputStream(file)) {
+                        return parseReport(input, file.toString(), PATH_UTIL.getAbsolutePath(file), charset, log)
+                                .stream().toList();
+                    }
+                }
+            }
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Parsing of file '%s' failed due to an exception:", file);
+            return List.of();
+        }
+    }
+
+    private List<ModuleNode> parseArchive(final Path file, final Charset charset, final FilteredLog log)
+            throws IOException {
+        List<ModuleNode> modules = new ArrayList<>();
+        try (var archive = new ZipFile(file.toFile())) {
+            var entries = archive.entries();
+            while (entries.hasMoreElements()) {
+                var entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    try (var input = archive.getInputStream(entry)) {
+                        var entryName = "!" + entry.getName();
+                        parseReport(input, file + entryName, PATH_UTIL.getAbsolutePath(file) + entryName, charset, log)
+                                .ifPresent(modules::add);
+                    }
+                }
+            }
+        }
+        if (modules.isEmpty()) {
+            log.logError("Skipping archive '%s' because it contains no reports", PATH_UTIL.getAbsolutePath(file));
+        }
+        return modules;
+    }
+
+    private Optional<ModuleNode> parseReport(final InputStream input, final String reportName,
+            final String absolutePath, final Charset charset, final FilteredLog log) {
         var coverageParser = parser.createParser(processingMode);
-        try (var inputStream = BOMInputStream.builder().setFile(file.toFile()).setCharset(charset).get();
+        try (var inputStream = BOMInputStream.builder().setInputStream(input).setCharset(charset).get();
                 var reader = new InputStreamReader(inputStream, charset)) {
-            var node = coverageParser.parse(reader, file.toString(), log);
-            log.logInfo("Successfully parsed file '%s'", PATH_UTIL.getAbsolutePath(file));
+            var node = coverageParser.parse(reader, reportName, log);
+            log.logInfo("Successfully parsed file '%s'", absolutePath);
             node.aggregateValues().forEach(v -> log.logInfo("%s", v.getDetails(Locale.ENGLISH)));
             return Optional.of(node);
         }
         catch (IOException | ParsingException exception) {
-            log.logException(exception, "Parsing of file '%s' failed due to an exception:", file);
+            log.logException(exception, "Parsing of file '%s' failed due to an exception:", absolutePath);
             return Optional.empty();
         }
     }
+
+    /**
+     * Compression formats of report files, detected by the magic numbers at the start of the file.
+     */
+    private enum Compression {
+        NONE,
+        GZIP,
+        ZIP;
+
+        static Compression of(final Path file) throws IOException {
+            var header = new byte[4];
+            int read;
+            try (var input = Files.newInputStream(file)) {
+                read = input.readNBytes(header, 0, header.length);
+            }
+            if (read >= 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B) {
+                return GZIP;
+            }
+            if (read == 4 && header[0] == 'P' && header[1] == 'K' && header[2] == 3 && header[3] == 4) {
+                return ZIP;
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * Counts the hits and misses of the {@link ParsedReportCache} during a scan.
+     */
+    private static final class CacheCounters {
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger misses = new AtomicInteger();
+    }
+
+    /**
+     * The parsed module of a single file and the messages that have been logged while parsing the file.
+     */
+    private record FileResult(List<ModuleNode> modules, FilteredLog log) {
+    }
 }
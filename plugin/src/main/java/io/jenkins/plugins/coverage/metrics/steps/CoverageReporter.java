@@ -9,20 +9,29 @@ import edu.hm.hafner.coverage.Value;
 import edu.hm.hafner.util.FilteredLog;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import edu.hm.hafner.util.VisibleForTesting;
 import hudson.FilePath;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMRevisionAction;
 
+import io.jenkins.plugins.coverage.metrics.model.Baseline;
 import io.jenkins.plugins.coverage.metrics.model.CoverageStatistics;
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings;
 import io.jenkins.plugins.coverage.metrics.source.SourceCodePainter;
 import io.jenkins.plugins.forensics.delta.Delta;
 import io.jenkins.plugins.forensics.delta.FileChanges;
 import io.jenkins.plugins.forensics.reference.ReferenceFinder;
 import io.jenkins.plugins.prism.SourceCodeRetention;
+import io.jenkins.plugins.util.QualityGateResult;
 import io.jenkins.plugins.util.ResultHandler;
 
 /**
@@ -33,6 +42,13 @@ import io.jenkins.plugins.util.ResultHandler;
  */
 @SuppressWarnings({"checkstyle:ClassDataAbstractionCoupling", "PMD.CouplingBetweenObjects"})
 public class CoverageReporter {
+    static final String PHASE_CODE_DELTA = "Calculating code delta";
+    static final String PHASE_CHANGES_PREPROCESSING = "Preprocessing code changes";
+    static final String PHASE_FILE_CHANGES = "Processing file changes";
+    static final String PHASE_QUALITY_GATES = "Evaluating quality gates";
+    static final String PHASE_SOURCE_PAINTING = "Painting source files";
+    static final String PHASE_PERSISTENCE = "Persisting results";
+
     private static final List<Value> EMPTY_VALUES = List.of();
 
     @SuppressWarnings({"checkstyle:ParameterNumber", "checkstyle:JavaNCSS"})
@@ -41,21 +57,23 @@ public class CoverageReporter {
             final Run<?, ?> build, final FilePath workspace, final TaskListener listener,
             final List<CoverageQualityGate> qualityGates, final String scm, final String sourceCodeEncoding,
             final SourceCodeRetention sourceCodeRetention, final ResultHandler notifier,
-            final FilteredLog log) throws InterruptedException {
+            final FilteredLog log, final PhaseTimings timings) throws InterruptedException {
         Optional<CoverageBuildAction> possibleReferenceResult = getReferenceBuildAction(build, id, log);
 
         CoverageBuildAction action;
         if (possibleReferenceResult.isPresent()) {
             action = computeCoverageBasedOnReferenceBuild(id, optionalName, icon, rootNode, build, workspace,
                     qualityGates, sourceCodeEncoding, sourceCodeRetention, notifier, possibleReferenceResult.get(),
-                    scm, listener, log);
+                    scm, listener, log, timings);
         }
         else {
             action = computeActionWithoutHistory(id, optionalName, icon, rootNode, build, workspace, qualityGates,
                     sourceCodeEncoding,
-                    sourceCodeRetention, notifier, log);
+                    sourceCodeRetention, notifier, log, timings);
         }
 
+        logTimings(timings, log);
+
         build.addAction(action);
         return action;
     }
@@ -66,16 +84,24 @@ public class CoverageReporter {
             final Node rootNode, final Run<?, ?> build, final FilePath workspace,
             final List<CoverageQualityGate> qualityGates, final String sourceCodeEncoding,
             final SourceCodeRetention sourceCodeRetention, final ResultHandler notifier,
-            final FilteredLog log) throws InterruptedException {
+            final FilteredLog log, final PhaseTimings timings) throws InterruptedException {
         var statistics = new CoverageStatistics(rootNode.aggregateValues(),
                 List.of(), List.<Difference>of(), List.of(), EMPTY_VALUES, List.of());
-        var evaluator = new CoverageQualityGateEvaluator(qualityGates, statistics);
-        var qualityGateStatus = evaluator.evaluate(notifier, log);
+        QualityGateResult qualityGateStatus;
+        try (var ignored = timings.start(PHASE_QUALITY_GATES)) {
+            var evaluator = new CoverageQualityGateEvaluator(qualityGates, statistics);
+            qualityGateStatus = evaluator.evaluate(notifier, log);
+        }
 
-        paintSourceFiles(build, workspace, sourceCodeEncoding, sourceCodeRetention, id, rootNode,
-                rootNode.getAllFileNodes(), log);
+        try (var ignored = timings.start(PHASE_SOURCE_PAINTING)) {
+            paintSourceFiles(build, workspace, sourceCodeEncoding, sourceCodeRetention, id, rootNode,
+                    rootNode.getAllFileNodes(), log);
+        }
 
-        return new CoverageBuildAction(build, id, optionalName, icon, rootNode, qualityGateStatus, log);
+        try (var ignored = timings.start(PHASE_PERSISTENCE)) {
+            return new CoverageBuildAction(build, id, optionalName, icon, rootNode, qualityGateStatus, log,
+                    timings);
+        }
     }
 
     @SuppressWarnings("checkstyle:ParameterNumber")
@@ -85,13 +111,23 @@ public class CoverageReporter {
             final List<CoverageQualityGate> qualityGates, final String sourceCodeEncoding,
             final SourceCodeRetention sourceCodeRetention, final ResultHandler notifier,
             final CoverageBuildAction referenceAction, final String scm,
-            final TaskListener listener, final FilteredLog log) throws InterruptedException {
+            final TaskListener listener, final FilteredLog log, final PhaseTimings timings)
+            throws InterruptedException {
+        if (hasSameRevision(build, referenceAction.getOwner())) {
+            return computeActionForSameRevision(id, optionalName, icon, rootNode, build, workspace, qualityGates,
+                    sourceCodeEncoding, sourceCodeRetention, notifier, referenceAction, log, timings);
+        }
+
         log.logInfo("Calculating the code delta...");
         var codeDeltaCalculator = new CodeDeltaCalculator(build, workspace, listener, scm);
-        Optional<Delta> delta = codeDeltaCalculator.calculateCodeDeltaToReference(referenceAction.getOwner(), log);
+        Optional<Delta> delta;
+        try (var ignored = timings.start(PHASE_CODE_DELTA)) {
+            delta = codeDeltaCalculator.calculateCodeDeltaToReference(referenceAction.getOwner(), log);
+        }
 
-        var referenceRoot = referenceAction.getResult();
-        delta.ifPresent(value -> createDeltaReports(rootNode, log, referenceRoot, codeDeltaCalculator, value));
+        var referenceRoot = referenceAction.getReferenceResult();
+        delta.ifPresent(value -> createDeltaReports(rootNode, log, referenceRoot, codeDeltaCalculator, value,
+                timings));
 
         log.logInfo("Calculating coverage deltas...");
 
@@ -118,22 +154,112 @@ public class CoverageReporter {
         }
 
         var overallValues = rootNode.aggregateValues();
-        List<Difference> overallDelta = rootNode.computeDelta(referenceRoot);
+        List<Difference> overallDelta = computeDelta(overallValues, referenceAction.getAllValues(Baseline.PROJECT));
         var modifiedLinesValues = modifiedLinesCoverageRoot.aggregateValues();
 
         var statistics = new CoverageStatistics(overallValues, overallDelta,
                 modifiedLinesValues, modifiedLinesDelta, modifiedFilesValues, modifiedFilesDelta);
-        var evaluator = new CoverageQualityGateEvaluator(qualityGates, statistics);
-        var qualityGateResult = evaluator.evaluate(notifier, log);
+        QualityGateResult qualityGateResult;
+        try (var ignored = timings.start(PHASE_QUALITY_GATES)) {
+            var evaluator = new CoverageQualityGateEvaluator(qualityGates, statistics);
+            qualityGateResult = evaluator.evaluate(notifier, log);
+        }
+
+        try (var ignored = timings.start(PHASE_SOURCE_PAINTING)) {
+            var filesToStore = computePaintedFiles(rootNode, sourceCodeRetention, log, modifiedLinesCoverageRoot);
+            paintSourceFiles(build, workspace, sourceCodeEncoding, sourceCodeRetention, id, rootNode, filesToStore,
+                    log);
+        }
+
+        var indirectCoverageChanges = rootNode.filterByIndirectChanges().aggregateValues();
+        try (var ignored = timings.start(PHASE_PERSISTENCE)) {
+            return new CoverageBuildAction(build, id, optionalName, icon, rootNode, qualityGateResult, log,
+                    referenceAction.getOwner().getExternalizableId(), overallDelta,
+                    modifiedLinesValues, modifiedLinesDelta,
+                    modifiedFilesValues, modifiedFilesDelta,
+                    indirectCoverageChanges, timings);
+        }
+    }
+
+    /**
+     * Computes the action for a build that has been built from the same SCM revision as its reference build (e.g., a
+     * rebuild). Since the source code has not been changed, there are no modified lines and no indirect coverage
+     * changes, so the SCM delta and the processing of the individual lines are skipped. If the coverage results are
+     * identical as well, then the reference tree is not loaded at all.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private CoverageBuildAction computeActionForSameRevision(
+            final String id, final String optionalName, final String icon,
+            final Node rootNode, final Run<?, ?> build, final FilePath workspace,
+            final List<CoverageQualityGate> qualityGates, final String sourceCodeEncoding,
+            final SourceCodeRetention sourceCodeRetention, final ResultHandler notifier,
+            final CoverageBuildAction referenceAction, final FilteredLog log, final PhaseTimings timings)
+            throws InterruptedException {
+        log.logInfo("Skipping the code delta: the reference build '%s' has the same SCM revision",
+                referenceAction.getOwner().getFullDisplayName());
+
+        List<Difference> overallDelta;
+        if (CoverageDigest.of(rootNode).equals(referenceAction.getContentDigest())) {
+            log.logInfo("-> Coverage results are identical to the reference build");
+            overallDelta = rootNode.computeDelta(rootNode);
+        }
+        else {
+            overallDelta = computeDelta(rootNode.aggregateValues(), referenceAction.getAllValues(Baseline.PROJECT));
+        }
+
+        var statistics = new CoverageStatistics(rootNode.aggregateValues(), overallDelta,
+                List.of(), List.<Difference>of(), EMPTY_VALUES, List.<Difference>of());
+        QualityGateResult qualityGateResult;
+        try (var ignored = timings.start(PHASE_QUALITY_GATES)) {
+            var evaluator = new CoverageQualityGateEvaluator(qualityGates, statistics);
+            qualityGateResult = evaluator.evaluate(notifier, log);
+        }
+
+        try (var ignored = timings.start(PHASE_SOURCE_PAINTING)) {
+            List<FileNode> filesToStore = sourceCodeRetention == SourceCodeRetention.MODIFIED
+                    ? List.of() : rootNode.getAllFileNodes();
+            paintSourceFiles(build, workspace, sourceCodeEncoding, sourceCodeRetention, id, rootNode, filesToStore,
+                    log);
+        }
 
-        var filesToStore = computePaintedFiles(rootNode, sourceCodeRetention, log, modifiedLinesCoverageRoot);
-        paintSourceFiles(build, workspace, sourceCodeEncoding, sourceCodeRetention, id, rootNode, filesToStore, log);
+        try (var ignored = timings.start(PHASE_PERSISTENCE)) {
+            return new CoverageBuildAction(build, id, optionalName, icon, rootNode, qualityGateResult, log,
+                    referenceAction.getOwner().getExternalizableId(), overallDelta,
+                    EMPTY_VALUES, List.of(), EMPTY_VALUES, List.of(), EMPTY_VALUES, timings);
+        }
+    }
+
+    /**
+     * Returns whether the specified build has been built from the same SCM revisions as the reference build. The
+     * revisions are provided by SCM sources (e.g., in multibranch projects), builds without revision information are
+     * never considered to be equal.
+     *
+     * <p>
+     * Note that only the {@link SCMRevisionAction SCM revision actions} of the SCM API are evaluated. The revisions that
+     * are recorded by a specific SCM plugin (e.g., the {@code BuildData} of the Git plugin in freestyle jobs or in
+     * pipelines that use the {@code checkout} step) are not visible to this plugin, since it does not depend on these
+     * plugins. The forensics API does not record the revision of a build either. For such builds the fast path is
+     * not taken: the code delta is computed as usual, so the results are the same, only the computation takes longer.
+     * </p>
+     *
+     * @param build
+     *         the build
+     * @param referenceBuild
+     *         the reference build
+     *
+     * @return {@code true} if both builds have the same revisions, {@code false} otherwise
+     */
+    @VisibleForTesting
+    static boolean hasSameRevision(final Run<?, ?> build, final Run<?, ?> referenceBuild) {
+        Set<SCMRevision> revisions = getRevisions(build);
+        return !revisions.isEmpty() && revisions.equals(getRevisions(referenceBuild));
+    }
 
-        return new CoverageBuildAction(build, id, optionalName, icon, rootNode, qualityGateResult, log,
-                referenceAction.getOwner().getExternalizableId(), overallDelta,
-                modifiedLinesValues, modifiedLinesDelta,
-                modifiedFilesValues, modifiedFilesDelta,
-                rootNode.filterByIndirectChanges().aggregateValues());
+    private static Set<SCMRevision> getRevisions(final Run<?, ?> build) {
+        return build.getActions(SCMRevisionAction.class).stream()
+                .map(SCMRevisionAction::getRevision)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
 
     private List<FileNode> computePaintedFiles(final Node rootNode, final SourceCodeRetention sourceCodeRetention,
@@ -160,25 +286,40 @@ public class CoverageReporter {
         log.logInfo("Finished coverage processing - adding the action to the build...");
     }
 
+    /**
+     * Logs the resources used by all phases, including the persistence of the action. The action holds a reference to
+     * this log, so these messages are stored with the action when the build is saved.
+     */
+    private void logTimings(final PhaseTimings timings, final FilteredLog log) {
+        log.logInfo("Resources used by the coverage recording phases:");
+        timings.getPhases().forEach(phase -> log.logInfo("-> %s", phase));
+    }
+
     private void createDeltaReports(final Node rootNode, final FilteredLog log, final Node referenceRoot,
-            final CodeDeltaCalculator codeDeltaCalculator, final Delta delta) {
+            final CodeDeltaCalculator codeDeltaCalculator, final Delta delta, final PhaseTimings timings) {
         var fileChangesProcessor = new FileChangesProcessor();
 
         try {
-            log.logInfo("Preprocessing code changes...");
-            Set<FileChanges> changes = codeDeltaCalculator.getCoverageRelevantChanges(delta);
-            var mappedChanges = codeDeltaCalculator.mapScmChangesToReportPaths(changes, rootNode, log);
-            var oldPathMapping = codeDeltaCalculator.createOldPathMapping(rootNode, referenceRoot, mappedChanges, log);
+            Map<String, FileChanges> mappedChanges;
+            Map<String, String> oldPathMapping;
+            try (var ignored = timings.start(PHASE_CHANGES_PREPROCESSING)) {
+                log.logInfo("Preprocessing code changes...");
+                Set<FileChanges> changes = codeDeltaCalculator.getCoverageRelevantChanges(delta);
+                mappedChanges = codeDeltaCalculator.mapScmChangesToReportPaths(changes, rootNode, log);
+                oldPathMapping = codeDeltaCalculator.createOldPathMapping(rootNode, referenceRoot, mappedChanges, log);
+            }
 
-            log.logInfo("Obtaining code changes for files...");
-            fileChangesProcessor.attachChangedCodeLines(rootNode, mappedChanges);
+            try (var ignored = timings.start(PHASE_FILE_CHANGES)) {
+                log.logInfo("Obtaining code changes for files...");
+                fileChangesProcessor.attachChangedCodeLines(rootNode, mappedChanges);
 
-            log.logInfo("Obtaining indirect coverage changes...");
-            fileChangesProcessor.attachIndirectCoveragesChanges(rootNode, referenceRoot,
-                    mappedChanges, oldPathMapping);
+                log.logInfo("Obtaining indirect coverage changes...");
+                fileChangesProcessor.attachIndirectCoveragesChanges(rootNode, referenceRoot,
+                        mappedChanges, oldPathMapping);
 
-            log.logInfo("Obtaining coverage delta for files...");
-            fileChangesProcessor.attachFileCoverageDeltas(rootNode, referenceRoot, oldPathMapping);
+                log.logInfo("Obtaining coverage delta for files...");
+                fileChangesProcessor.attachFileCoverageDeltas(rootNode, referenceRoot, oldPathMapping);
+            }
         }
         catch (IllegalStateException exception) {
             log.logError("An error occurred while processing code and coverage changes:");
@@ -188,6 +329,30 @@ public class CoverageReporter {
         }
     }
 
+    /**
+     * Computes the differences between the specified values and the values of the reference build. The aggregated
+     * values of the reference build are persisted in its action, so the coverage tree of the reference build is not
+     * required to compute the overall delta. The result is the same as the result of {@link Node#computeDelta(Node)}
+     * for the corresponding coverage trees.
+     *
+     * @param values
+     *         the aggregated values of the current build
+     * @param referenceValues
+     *         the aggregated values of the reference build
+     *
+     * @return the differences for all metrics that are available in both builds
+     */
+    @VisibleForTesting
+    static List<Difference> computeDelta(final List<? extends Value> values,
+            final List<? extends Value> referenceValues) {
+        Map<Metric, Value> referenceByMetric = referenceValues.stream()
+                .collect(Collectors.toMap(Value::getMetric, Function.identity(), (first, second) -> first));
+        return values.stream()
+                .filter(value -> referenceByMetric.containsKey(value.getMetric()))
+                .map(value -> value.subtract(referenceByMetric.get(value.getMetric())))
+                .collect(Collectors.toList());
+    }
+
     private boolean hasModifiedLinesCoverage(final Node modifiedLinesCoverageRoot) {
         Optional<Value> lineCoverage = modifiedLinesCoverageRoot.getValue(Metric.LINE);
         if (lineCoverage.isPresent() && hasLineCoverageSet(lineCoverage.get())) {
@@ -70,6 +70,8 @@ public class CoverageStep extends Step implements Serializable {
     private boolean failOnError = false;
     private boolean enabledForFailure = false;
     private boolean skipSymbolicLinks = false;
+    private int parsingThreads = 1;
+    private boolean cacheParsedReports = false;
     private String scm = StringUtils.EMPTY;
     private String sourceCodeEncoding = StringUtils.EMPTY;
     @SuppressWarnings("serial")
@@ -220,6 +222,39 @@ public class CoverageStep extends Step implements Serializable {
         return skipSymbolicLinks;
     }
 
+    /**
+     * Sets the maximum number of report files that will be parsed in parallel. This limit covers all coverage tools:
+     * if several tools are configured, then the threads are split across the tools. If set to 1, then the report files
+     * of all tools will be parsed sequentially.
+     *
+     * @param parsingThreads
+     *         the maximum number of threads that will parse the report files
+     */
+    @DataBoundSetter
+    public void setParsingThreads(final int parsingThreads) {
+        this.parsingThreads = parsingThreads;
+    }
+
+    public int getParsingThreads() {
+        return Math.max(1, parsingThreads);
+    }
+
+    /**
+     * Determines whether parsed reports should be cached on the agent. Report files with a content that has been parsed
+     * before with the same parser will not be parsed again, the cached result will be used instead.
+     *
+     * @param cacheParsedReports
+     *         {@code true} if parsed reports should be cached, {@code false} otherwise
+     */
+    @DataBoundSetter
+    public void setCacheParsedReports(final boolean cacheParsedReports) {
+        this.cacheParsedReports = cacheParsedReports;
+    }
+
+    public boolean isCacheParsedReports() {
+        return cacheParsedReports;
+    }
+
     /**
      * Specify if parsing errors should be ignored and logged instead of throwing an exception.
      *
@@ -359,6 +394,8 @@ public class CoverageStep extends Step implements Serializable {
             recorder.setChecksName(step.getChecksName());
             recorder.setChecksAnnotationScope(step.getChecksAnnotationScope());
             recorder.setIgnoreParsingErrors(step.isIgnoreParsingErrors());
+            recorder.setParsingThreads(step.getParsingThreads());
+            recorder.setCacheParsedReports(step.isCacheParsedReports());
             recorder.setFailOnError(step.isFailOnError());
             recorder.setEnabledForFailure(step.isEnabledForFailure());
             recorder.setScm(step.getScm());
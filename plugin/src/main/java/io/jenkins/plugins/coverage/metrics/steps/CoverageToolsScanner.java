@@ -0,0 +1,302 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+
+import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.PathUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import io.jenkins.plugins.coverage.metrics.model.CompactTransport;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.Parser;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.ParserType;
+import io.jenkins.plugins.util.ValidationUtilities;
+
+/**
+ * Scans the workspace for the coverage reports of several coverage tools at once. In contrast to the
+ * {@link CoverageReportScanner} the workspace will be traversed only once: all files that match one of the patterns of
+ * the tools will be collected in a single directory scan. Afterward, each matching file is parsed by the
+ * {@link Parser parsers} of all tools whose pattern matches the file. The reports of different tools are parsed
+ * concurrently: the configured number of parsing threads is split across the tools, so that the total number of
+ * threads never exceeds this limit. The {@link ModuleNode modules} of a coverage tool are merged on the agent (see
+ * {@link ParallelNodeMerger}), so that only a single coverage tree per tool needs to be transferred to the
+ * controller. If the scanning of a tool fails, then the exception is reported in the log of this tool, the results of
+ * the other tools are not affected.
+ */
+class CoverageToolsScanner extends MasterToSlaveFileCallable<ArrayList<CoverageToolsScanner.ToolResult>> {
+    @Serial
+    private static final long serialVersionUID = -3256429163045981437L;
+
+    private static final PathUtil PATH_UTIL = new PathUtil();
+    private static final ValidationUtilities VALIDATION_UTILITIES = new ValidationUtilities();
+
+    private final List<ToolScan> scans;
+    private final String encoding;
+    private final boolean followSymbolicLinks;
+    private final ProcessingMode processingMode;
+    private final int parsingThreads;
+    private final boolean useCache;
+
+    /**
+     * Creates a new instance of {@link CoverageToolsScanner}.
+     *
+     * @param scans
+     *         the parsers and corresponding file patterns of the tools to scan for
+     * @param encoding
+     *         encoding of the files to parse
+     * @param followSymbolicLinks
+     *         if the scanner should traverse symbolic links
+     * @param processingMode
+     *         determines whether to ignore errors
+     * @param parsingThreads
+     *         the maximum number of report files that will be parsed in parallel (summed over all tools)
+     * @param useCache
+     *         determines whether report files with a content that has been parsed before should be taken from the
+     *         {@link ParsedReportCache}
+     */
+    CoverageToolsScanner(final List<ToolScan> scans, final String encoding,
+            final boolean followSymbolicLinks, final ProcessingMode processingMode, final int parsingThreads,
+            final boolean useCache) {
+        super();
+
+        this.scans = List.copyOf(scans);
+        this.encoding = encoding;
+        this.followSymbolicLinks = followSymbolicLinks;
+        this.processingMode = processingMode;
+        this.parsingThreads = parsingThreads;
+        this.useCache = useCache;
+    }
+
+    @Override
+    public ArrayList<ToolResult> invoke(final File workspace, final VirtualChannel channel)
+            throws IOException, InterruptedException {
+        var fileNames = findFiles(workspace);
+
+        int toolThreads = getToolThreads(scans.size(), parsingThreads);
+        int threadsPerTool = getThreadsPerTool(toolThreads, parsingThreads);
+        var executor = Executors.newFixedThreadPool(toolThreads);
+        try {
+            List<Future<ToolResult>> futures = new ArrayList<>();
+            for (ToolScan scan : scans) {
+                futures.add(executor.submit(createScanTask(scan, workspace, fileNames, threadsPerTool)));
+            }
+
+            var results = new ArrayList<ToolResult>();
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(getResult(futures.get(i), scans.get(i)));
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of tools that will be scanned concurrently. This number is bounded by the number of tools,
+     * the number of parsing threads and the number of available processors.
+     *
+     * @param tools
+     *         the number of tools to scan
+     * @param parsingThreads
+     *         the maximum number of threads that parse report files
+     *
+     * @return the number of tools that will be scanned concurrently
+     */
+    static int getToolThreads(final int tools, final int parsingThreads) {
+        return Math.max(1, Math.min(Math.min(tools, parsingThreads), Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Returns the number of report files of a single tool that will be parsed in parallel. The parsing threads are
+     * split evenly across the concurrently scanned tools, so that the total number of threads is bounded by the
+     * number of parsing threads.
+     *
+     * @param toolThreads
+     *         the number of tools that will be scanned concurrently
+     * @param parsingThreads
+     *         the maximum number of threads that parse report files
+     *
+     * @return the number of report files of a tool that will be parsed in parallel
+     */
+    static int getThreadsPerTool(final int toolThreads, final int parsingThreads) {
+        return Math.max(1, parsingThreads / toolThreads);
+    }
+
+    private ToolResult getResult(final Future<ToolResult> future, final ToolScan scan) throws InterruptedException {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException exception) {
+            var cause = exception.getCause();
+            var log = new FilteredLog("Errors while scanning for coverage reports:");
+            log.logException(cause instanceof Exception e ? e : new IOException(cause),
+                    "Exception while parsing with tool %s", scan.getParser().getDisplayName());
+            return new ToolResult(log, new ArrayList<>(), true);
+        }
+    }
+
+    private String[] findFiles(final File workspace) {
+        var includes = scans.stream().map(ToolScan::getPattern).collect(Collectors.joining(","));
+        var fileSet = Util.createFileSet(workspace, includes);
+        fileSet.setFollowSymlinks(followSymbolicLinks);
+        return fileSet.getDirectoryScanner().getIncludedFiles();
+    }
+
+    private Callable<ToolResult> createScanTask(final ToolScan scan, final File workspace,
+            final String[] fileNames, final int threads) {
+        return () -> scan(scan, workspace, fileNames, threads);
+    }
+
+    private ToolResult scan(final ToolScan scan, final File workspace, final String[] fileNames, final int threads)
+            throws InterruptedException {
+        var log = new FilteredLog("Errors while scanning for coverage reports:");
+        log.logInfo("Searching for all files in '%s' that match the pattern '%s'",
+                PATH_UTIL.getAbsolutePath(workspace.toPath()), scan.getPattern());
+
+        var patterns = normalizePatterns(scan.getPattern());
+        var matches = Arrays.stream(fileNames)
+                .filter(fileName -> matchesAny(patterns, fileName))
+                .toList();
+
+        var results = new ArrayList<Node>();
+        if (matches.isEmpty()) {
+            log.logError("No files found for pattern '%s'. Configuration error?", scan.getPattern());
+        }
+        else {
+            log.logInfo("-> found %s", plural(matches.size()));
+
+            var scanner = new CoverageReportScanner(scan.getParser(), scan.getPattern(), encoding,
+                    followSymbolicLinks, processingMode);
+            Charset charset = VALIDATION_UTILITIES.getCharset(encoding);
+            var files = matches.stream().map(fileName -> workspace.toPath().resolve(fileName)).toList();
+            var modules = scanner.processFiles(files, charset, log, threads, useCache);
+            if (scan.getParser().getParserType() == ParserType.COVERAGE && modules.size() > 1) {
+                log.logInfo("Merging %d coverage trees of %s", modules.size(), scan.getParser().getDisplayName());
+                results.add(new ParallelNodeMerger().merge(modules));
+            }
+            else {
+                results.addAll(modules);
+            }
+        }
+        return new ToolResult(log, results, false);
+    }
+
+    private static String plural(final int count) {
+        return count == 1 ? "1 file" : count + " files";
+    }
+
+    /**
+     * Converts the comma separated Ant patterns of a tool to the normalized form that is used by the Ant directory
+     * scanner, i.e., using the platform specific file separator and a trailing {@code **} for directories.
+     *
+     * @param pattern
+     *         the Ant pattern of the tool
+     *
+     * @return the normalized patterns
+     */
+    static List<String> normalizePatterns(final String pattern) {
+        return Arrays.stream(StringUtils.split(pattern, ','))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(CoverageToolsScanner::normalizePattern)
+                .toList();
+    }
+
+    private static String normalizePattern(final String pattern) {
+        var normalized = pattern.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+        if (normalized.endsWith(File.separator)) {
+            return normalized + "**";
+        }
+        return normalized;
+    }
+
+    private static boolean matchesAny(final List<String> patterns, final String fileName) {
+        return patterns.stream().anyMatch(pattern -> SelectorUtils.matchPath(pattern, fileName));
+    }
+
+    /**
+     * The parser and the file pattern of a single coverage tool.
+     */
+    static final class ToolScan implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 2383170414298154316L;
+
+        private final Parser parser;
+        private final String pattern;
+
+        ToolScan(final Parser parser, final String pattern) {
+            this.parser = parser;
+            this.pattern = pattern;
+        }
+
+        Parser getParser() {
+            return parser;
+        }
+
+        String getPattern() {
+            return pattern;
+        }
+    }
+
+    /**
+     * The results of scanning and parsing the reports of a single coverage tool.
+     */
+    static final class ToolResult implements Serializable {
+        @Serial
+        private static final long serialVersionUID = -3425711389468451046L;
+
+        private final FilteredLog log;
+        private final CompactTransport<ArrayList<Node>> results;
+        private final boolean failed;
+
+        @SuppressWarnings("PMD.LooseCoupling")
+        ToolResult(final FilteredLog log, final ArrayList<Node> results, final boolean failed) {
+            this.log = log;
+            this.results = CompactTransport.of(results);
+            this.failed = failed;
+        }
+
+        FilteredLog getLog() {
+            return log;
+        }
+
+        List<Node> getResults() {
+            return results.get();
+        }
+
+        boolean hasErrors() {
+            return log.hasErrors();
+        }
+
+        /**
+         * Returns whether the scanning of the tool failed with an exception. The exception is part of the log, the
+         * results are empty.
+         *
+         * @return {@code true} if the scanning failed, {@code false} otherwise
+         */
+        boolean isFailed() {
+            return failed;
+        }
+    }
+}
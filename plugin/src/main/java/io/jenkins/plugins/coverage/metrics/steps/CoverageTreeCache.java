@@ -0,0 +1,400 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * A controller wide cache of the coverage trees that have been loaded from the build folders. The size of the cache
+ * is bounded by the estimated retained heap size of the cached trees (see {@link #estimateSize(Node)}), the least
+ * recently used trees will be evicted first. The tree of the last completed build of each job is pinned, i.e., it will
+ * not be evicted since it is used as reference by the next build. Trees that have been derived from the persisted
+ * result of a build (e.g., a tree without line data, see {@link #getDerived(Run, String, Supplier)}) are never pinned,
+ * so that each build pins at most one tree. The number of the last completed build of each job is resolved outside
+ * the lock of the cache and tracked by the full name of the job, so that the cache does not reference any jobs.
+ * Concurrent requests for the same tree wait for a single load of the tree. The maximum size can be configured with
+ * the system property
+ * {@code io.jenkins.plugins.coverage.metrics.steps.CoverageTreeCache.maximumSize} (in bytes), the default is an eighth
+ * of the maximum heap size.
+ *
+ * <p>
+ * The cached trees are shared by all users and must not be modified.
+ * </p>
+ */
+final class CoverageTreeCache {
+    static final long NODE_BYTES = 200;
+    static final long VALUE_BYTES = 40;
+    static final long LINE_BYTES = 150;
+
+    private static final CoverageTreeCache INSTANCE = new CoverageTreeCache(
+            SystemProperties.getLong(CoverageTreeCache.class.getName() + ".maximumSize",
+                    Runtime.getRuntime().maxMemory() / 8));
+
+    static CoverageTreeCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final long maximumSize;
+    private final Map<Key, CachedTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<Node>> loading = new ConcurrentHashMap<>();
+    private final Map<String, Integer> lastCompletedBuilds = new ConcurrentHashMap<>();
+    private long size;
+
+    private long hits;
+    private long misses;
+    private long loads;
+    private long loadTime;
+    private long evictions;
+
+    CoverageTreeCache(final long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the cached coverage tree with the specified name of the specified build. If the tree is not cached
+     * yet, it will be loaded using the specified loader and stored in the cache.
+     *
+     * @param build
+     *         the build that owns the tree
+     * @param name
+     *         the name of the tree, e.g., the name of the file that stores the tree
+     * @param loader
+     *         loads the tree if it is not cached yet
+     *
+     * @return the coverage tree
+     */
+    Node get(final Run<?, ?> build, final String name, final Supplier<Node> loader) {
+        return get(build, name, loader, false);
+    }
+
+    /**
+     * Returns the cached coverage tree with the specified name of the specified build. In contrast to
+     * {@link #get(Run, String, Supplier)}, the tree is derived from the persisted result of the build (e.g., a part of
+     * the result), so it will never be pinned. If the tree is not cached yet, it will be loaded using the specified
+     * loader and stored in the cache.
+     *
+     * @param build
+     *         the build that owns the tree
+     * @param name
+     *         the name of the tree, e.g., the name of the file that stores the tree
+     * @param loader
+     *         loads the tree if it is not cached yet
+     *
+     * @return the coverage tree
+     */
+    Node getDerived(final Run<?, ?> build, final String name, final Supplier<Node> loader) {
+        return get(build, name, loader, true);
+    }
+
+    private Node get(final Run<?, ?> build, final String name, final Supplier<Node> loader, final boolean derived) {
+        var job = build.getParent();
+        var key = new Key(job.getFullName(), build.getNumber(), name);
+        var load = new CompletableFuture<Node>();
+        CompletableFuture<Node> inFlight;
+        synchronized (this) {
+            var cached = trees.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.tree();
+            }
+            inFlight = loading.putIfAbsent(key, load);
+            if (inFlight == null) {
+                misses++;
+            }
+            else {
+                hits++; // the tree is loaded by another request
+            }
+        }
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+
+        try {
+            // the job and the tree are accessed outside the lock to not block other requests
+            if (!lastCompletedBuilds.containsKey(key.job())) {
+                lastCompletedBuilds.putIfAbsent(key.job(), getLastCompletedBuild(job));
+            }
+
+            long start = System.nanoTime();
+            var tree = loader.get();
+            long duration = System.nanoTime() - start;
+
+            put(key, new CachedTree(tree, estimateSize(tree), derived), duration);
+            load.complete(tree);
+            return tree;
+        }
+        finally {
+            loading.remove(key, load);
+            if (!load.isDone()) {
+                load.completeExceptionally(new IllegalStateException("Failed to load coverage tree " + key));
+            }
+        }
+    }
+
+    private synchronized void put(final Key key, final CachedTree tree, final long duration) {
+        loads++;
+        loadTime += duration;
+
+        var previous = trees.put(key, tree);
+        if (previous != null) {
+            size -= previous.size();
+        }
+        size += tree.size();
+
+        var iterator = trees.entrySet().iterator();
+        while (size > maximumSize && iterator.hasNext()) {
+            var entry = iterator.next();
+            if (!isPinned(entry.getKey(), entry.getValue())) {
+                size -= entry.getValue().size();
+                iterator.remove();
+                evictions++;
+            }
+        }
+    }
+
+    private boolean isPinned(final Key key, final CachedTree tree) {
+        return !tree.derived() && lastCompletedBuilds.getOrDefault(key.job(), -1) == key.build();
+    }
+
+    private static int getLastCompletedBuild(final Job<?, ?> job) {
+        var lastCompletedBuild = job.getLastCompletedBuild();
+        return lastCompletedBuild == null ? -1 : lastCompletedBuild.getNumber();
+    }
+
+    /**
+     * Marks the specified build as the last completed build of its job, so that its tree will be pinned from now on.
+     *
+     * @param build
+     *         the build that has been completed
+     */
+    void setLastCompletedBuild(final Run<?, ?> build) {
+        lastCompletedBuilds.merge(build.getParent().getFullName(), build.getNumber(), Math::max);
+    }
+
+    /**
+     * Removes all cached trees of the specified build.
+     *
+     * @param build
+     *         the build
+     */
+    synchronized void invalidate(final Run<?, ?> build) {
+        var job = build.getParent().getFullName();
+        lastCompletedBuilds.remove(job); // will be resolved again when the next tree of the job is loaded
+        var iterator = trees.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getKey().job().equals(job) && entry.getKey().build() == build.getNumber()) {
+                size -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached trees.
+     */
+    synchronized void clear() {
+        trees.clear();
+        lastCompletedBuilds.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the statistics of this cache.
+     *
+     * @return the statistics
+     */
+    synchronized Statistics getStatistics() {
+        var pinned = trees.entrySet().stream()
+                .filter(entry -> isPinned(entry.getKey(), entry.getValue()))
+                .count();
+        return new Statistics(trees.size(), pinned, size, maximumSize, hits, misses, loads,
+                TimeUnit.NANOSECONDS.toMillis(loadTime), evictions);
+    }
+
+    /**
+     * Estimates the retained heap size of the specified coverage tree. The estimation uses the number of nodes,
+     * values, and lines with coverage and is not exact, but sufficient to compare the sizes of trees.
+     *
+     * @param root
+     *         the root of the tree
+     *
+     * @return the estimated size in bytes
+     */
+    static long estimateSize(final Node root) {
+        long estimatedSize = NODE_BYTES + VALUE_BYTES * root.getValues().size();
+        if (root instanceof FileNode file) {
+            estimatedSize += LINE_BYTES * file.getLinesWithCoverage().size();
+        }
+        for (Node child : root.getChildren()) {
+            estimatedSize += estimateSize(child);
+        }
+        return estimatedSize;
+    }
+
+    private record Key(String job, int build, String name) {
+    }
+
+    private record CachedTree(Node tree, long size, boolean derived) {
+    }
+
+    /**
+     * The statistics of the {@link CoverageTreeCache}.
+     */
+    @ExportedBean
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public static final class Statistics {
+        private final int entries;
+        private final long pinnedEntries;
+        private final long estimatedBytes;
+        private final long maximumBytes;
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long loadTimeMillis;
+        private final long evictions;
+
+        Statistics(final int entries, final long pinnedEntries, final long estimatedBytes, final long maximumBytes,
+                final long hits, final long misses, final long loads, final long loadTimeMillis,
+                final long evictions) {
+            this.entries = entries;
+            this.pinnedEntries = pinnedEntries;
+            this.estimatedBytes = estimatedBytes;
+            this.maximumBytes = maximumBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.loadTimeMillis = loadTimeMillis;
+            this.evictions = evictions;
+        }
+
+        @Exported
+        public int getEntries() {
+            return entries;
+        }
+
+        @Exported
+        public long getPinnedEntries() {
+            return pinnedEntries;
+        }
+
+        @Exported
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Exported
+        public long getMaximumBytes() {
+            return maximumBytes;
+        }
+
+        @Exported
+        public long getHits() {
+            return hits;
+        }
+
+        @Exported
+        public long getMisses() {
+            return misses;
+        }
+
+        @Exported
+        public long getLoads() {
+            return loads;
+        }
+
+        @Exported
+        public long getLoadTimeMillis() {
+            return loadTimeMillis;
+        }
+
+        /**
+         * Returns the average time to load a tree.
+         *
+         * @return the average load time in milliseconds
+         */
+        @Exported
+        public long getAverageLoadTimeMillis() {
+            return loads == 0 ? 0 : loadTimeMillis / loads;
+        }
+
+        @Exported
+        public long getEvictions() {
+            return evictions;
+        }
+    }
+
+    /**
+     * Reads the coverage tree with another stream and stores the result in the {@link CoverageTreeCache}.
+     */
+    static class CachingStream extends AbstractXmlStream<Node> {
+        private final Run<?, ?> build;
+        private final AbstractXmlStream<Node> delegate;
+
+        /**
+         * Creates a new stream.
+         *
+         * @param build
+         *         the build that owns the tree
+         * @param delegate
+         *         the stream that actually reads and writes the tree
+         */
+        CachingStream(final Run<?, ?> build, final AbstractXmlStream<Node> delegate) {
+            super(Node.class);
+
+            this.build = build;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Node read(final Path file) {
+            return getInstance().get(build, file.getFileName().toString(), () -> delegate.read(file));
+        }
+
+        @Override
+        public void write(final Path file, final Node root) {
+            delegate.write(file, root);
+        }
+
+        @Override
+        protected Node createDefaultValue() {
+            return new ModuleNode("Empty");
+        }
+    }
+
+    /**
+     * Pins the tree of a build as soon as the build has been completed and drops the cached trees of a build as soon
+     * as the build has been deleted.
+     */
+    @Extension
+    public static class CoverageTreeCacheCleaner extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            getInstance().setLastCompletedBuild(run);
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            getInstance().invalidate(run);
+        }
+    }
+}
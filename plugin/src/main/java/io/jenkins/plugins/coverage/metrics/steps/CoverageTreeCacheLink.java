@@ -0,0 +1,77 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+import hudson.Extension;
+import hudson.model.Api;
+import hudson.model.ManagementLink;
+import jenkins.model.Jenkins;
+
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTreeCache.Statistics;
+
+/**
+ * Administrative page that shows the statistics of the {@link CoverageTreeCache}. The statistics are available in the
+ * remote API as well.
+ */
+@Extension
+public class CoverageTreeCacheLink extends ManagementLink {
+    @Override
+    public String getIconFileName() {
+        return "symbol-footsteps-outline plugin-ionicons-api";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.TreeCache_Name();
+    }
+
+    @Override
+    public String getDescription() {
+        return Messages.TreeCache_Description();
+    }
+
+    @Override
+    public String getUrlName() {
+        return "coverage-cache";
+    }
+
+    @Override
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+
+    /**
+     * Returns the current statistics of the cache.
+     *
+     * @return the statistics
+     */
+    public Statistics getStatistics() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+
+        return CoverageTreeCache.getInstance().getStatistics();
+    }
+
+    /**
+     * Gets the remote API for the statistics of the cache.
+     *
+     * @return the remote API
+     */
+    public Api getApi() {
+        return new Api(getStatistics());
+    }
+
+    /**
+     * Removes all trees from the cache.
+     *
+     * @return redirects to the page of the cache
+     */
+    @RequirePOST
+    public HttpResponse doClear() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+
+        CoverageTreeCache.getInstance().clear();
+
+        return HttpResponses.redirectToDot();
+    }
+}
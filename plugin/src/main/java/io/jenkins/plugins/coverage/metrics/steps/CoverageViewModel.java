@@ -47,6 +47,7 @@ import io.jenkins.plugins.coverage.metrics.color.ColorProviderFactory;
 import io.jenkins.plugins.coverage.metrics.color.CoverageColorJenkinsId;
 import io.jenkins.plugins.coverage.metrics.model.CoverageStatistics;
 import io.jenkins.plugins.coverage.metrics.model.ElementFormatter;
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings;
 import io.jenkins.plugins.coverage.metrics.restapi.CoverageApi;
 import io.jenkins.plugins.coverage.metrics.restapi.ModifiedLinesCoverageApiModel;
 import io.jenkins.plugins.coverage.metrics.source.SourceCodeFacade;
@@ -89,11 +90,14 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     private final QualityGateResult qualityGateResult;
     private final String referenceBuild;
     private final FilteredLog log;
-    private final Node node;
+    private final PhaseTimings phaseTimings;
+    /** Loads the coverage tree lazily: subpages that show a single file or the modified files load only these parts. */
+    private final ResultLoader loader;
+    private volatile Node node; // initialized lazily, concurrent requests might render the same model
     private final String id;
 
-    private final Node modifiedLinesCoverageTreeRoot;
-    private final Node indirectCoverageChangesTreeRoot;
+    private volatile Node modifiedLinesCoverageTreeRoot;
+    private volatile Node indirectCoverageChangesTreeRoot;
     private final Function<String, String> trendChartFunction;
     private final Function<String, String> metricsTrendFunction;
 
@@ -105,6 +109,16 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
             final String referenceBuild, final FilteredLog log,
             final Function<String, String> trendChartFunction,
             final Function<String, String> metricsTrendFunction) {
+        this(owner, id, displayName, ResultLoader.of(node), statistics, qualityGateResult, referenceBuild, log,
+                new PhaseTimings(), trendChartFunction, metricsTrendFunction);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    CoverageViewModel(final Run<?, ?> owner, final String id, final String displayName, final ResultLoader loader,
+            final CoverageStatistics statistics, final QualityGateResult qualityGateResult,
+            final String referenceBuild, final FilteredLog log, final PhaseTimings phaseTimings,
+            final Function<String, String> trendChartFunction,
+            final Function<String, String> metricsTrendFunction) {
         super();
 
         this.owner = owner;
@@ -112,15 +126,14 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         this.id = id;
         this.displayName = displayName;
 
-        this.node = node;
+        this.loader = loader;
         this.statistics = statistics;
         this.qualityGateResult = qualityGateResult;
         this.referenceBuild = referenceBuild;
 
         this.log = log;
+        this.phaseTimings = phaseTimings;
 
-        modifiedLinesCoverageTreeRoot = node.filterByModifiedLines();
-        indirectCoverageChangesTreeRoot = node.filterByIndirectChanges();
         this.trendChartFunction = trendChartFunction;
         this.metricsTrendFunction = metricsTrendFunction;
     }
@@ -139,7 +152,45 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     }
 
     public Node getNode() {
-        return node;
+        var tree = node;
+        if (tree == null) {
+            synchronized (this) {
+                tree = node;
+                if (tree == null) {
+                    tree = loader.getTree();
+                    node = tree;
+                }
+            }
+        }
+        return tree;
+    }
+
+    private Node getModifiedLinesCoverageTreeRoot() {
+        var root = modifiedLinesCoverageTreeRoot;
+        if (root == null) {
+            synchronized (this) {
+                root = modifiedLinesCoverageTreeRoot;
+                if (root == null) {
+                    root = getNode().filterByModifiedLines();
+                    modifiedLinesCoverageTreeRoot = root;
+                }
+            }
+        }
+        return root;
+    }
+
+    private Node getIndirectCoverageChangesTreeRoot() {
+        var root = indirectCoverageChangesTreeRoot;
+        if (root == null) {
+            synchronized (this) {
+                root = indirectCoverageChangesTreeRoot;
+                if (root == null) {
+                    root = getNode().filterByIndirectChanges();
+                    indirectCoverageChangesTreeRoot = root;
+                }
+            }
+        }
+        return root;
     }
 
     public ElementFormatter getFormatter() {
@@ -153,7 +204,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      */
     @SuppressWarnings("unused")
     public NavigableSet<Metric> getTreeMetrics() {
-        var valueMetrics = node.getValueMetrics();
+        var valueMetrics = getNode().getValueMetrics();
         valueMetrics.retainAll(TREE_METRICS);
         return valueMetrics;
     }
@@ -165,7 +216,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      */
     @SuppressWarnings("unused") // Used in trend chart configuration
     public List<Metric> getCoverageMetrics() {
-        return node.aggregateValues().stream()
+        return getNode().aggregateValues().stream()
                 .map(Value::getMetric)
                 .filter(Metric::isCoverage)
                 .filter(m -> !TrendChartFactory.IGNORED_TREND_METRICS.contains(m))
@@ -179,7 +230,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      */
     @SuppressWarnings("unused") // Used in trend chart configuration
     public List<Metric> getSoftwareMetrics() {
-        return node.aggregateValues().stream()
+        return getNode().aggregateValues().stream()
                 .map(Value::getMetric)
                 .filter(Predicate.not(Metric::isCoverage))
                 .filter(m -> !TrendChartFactory.IGNORED_TREND_METRICS.contains(m))
@@ -200,7 +251,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return the remote API
      */
     public Api getApi() {
-        return new Api(new CoverageApi(statistics, qualityGateResult, referenceBuild));
+        return new Api(new CoverageApi(statistics, qualityGateResult, referenceBuild, phaseTimings));
     }
 
     /**
@@ -247,7 +298,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
 
     @JavaScriptMethod
     public CoverageOverview getOverview() {
-        return new CoverageOverview(node);
+        return new CoverageOverview(getNode());
     }
 
     /**
@@ -284,7 +335,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return if the last job has coverage data
      */
     public boolean hasCoverage() {
-        return node.aggregateValues().stream().map(Value::getMetric).anyMatch(Metric::isCoverage);
+        return getNode().aggregateValues().stream().map(Value::getMetric).anyMatch(Metric::isCoverage);
     }
 
     /**
@@ -351,10 +402,10 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         return switch (actualId) {
             case ABSOLUTE_COVERAGE_TABLE_ID -> new CoverageTableModel(tableId, getNode(), renderer, colorProvider);
             case MODIFIED_LINES_COVERAGE_TABLE_ID ->
-                    new ModifiedLinesCoverageTableModel(tableId, getNode(), modifiedLinesCoverageTreeRoot, renderer,
+                    new ModifiedLinesCoverageTableModel(tableId, getNode(), getModifiedLinesCoverageTreeRoot(), renderer,
                             colorProvider);
             case INDIRECT_COVERAGE_TABLE_ID ->
-                    new IndirectCoverageChangesTable(tableId, getNode(), indirectCoverageChangesTreeRoot, renderer,
+                    new IndirectCoverageChangesTable(tableId, getNode(), getIndirectCoverageChangesTreeRoot(), renderer,
                             colorProvider);
             default -> throw new NoSuchElementException("No such table with id " + actualId);
         };
@@ -405,12 +456,10 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         if (!SourceCodeViewModel.hasPermissionToViewSourceCode(getOwner())) {
             return Messages.Coverage_Permission_Denied();
         }
-        Optional<Node> targetResult
-                = getNode().findByHashCode(Metric.FILE, Integer.parseInt(fileHash));
+        var targetResult = loader.findFile(Integer.parseInt(fileHash));
         if (targetResult.isPresent()) {
             try {
-                var fileNode = targetResult.get();
-                return readSourceCode((FileNode) fileNode, tableId);
+                return readSourceCode(targetResult.get(), tableId);
             }
             catch (IOException | InterruptedException exception) {
                 return ExceptionUtils.getStackTrace(exception);
@@ -472,7 +521,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return {@code true} whether modified lines coverage exists, else {@code false}
      */
     public boolean hasModifiedLinesCoverage() {
-        return !modifiedLinesCoverageTreeRoot.isEmpty();
+        return !getModifiedLinesCoverageTreeRoot().isEmpty();
     }
 
     /**
@@ -481,7 +530,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return {@code true} whether indirect coverage changes exist, else {@code false}
      */
     public boolean hasIndirectCoverageChanges() {
-        return !indirectCoverageChangesTreeRoot.isEmpty();
+        return !getIndirectCoverageChangesTreeRoot().isEmpty();
     }
 
     /**
@@ -512,7 +561,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     @CheckForNull
     public Object getDynamic(final String link, final StaplerRequest2 request, final StaplerResponse2 response) {
         if (MODIFIED_LINES_API_URL.equals(link)) {
-            return new ModifiedLinesCoverageApiModel(node);
+            return new ModifiedLinesCoverageApiModel(loader.getModifiedFiles());
         }
         if (INFO_MESSAGES_VIEW_URL.equals(link)) {
             return new MessagesViewModel(getOwner(), Messages.MessagesViewModel_Title(),
@@ -520,10 +569,9 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         }
         if (StringUtils.isNotEmpty(link)) {
             try {
-                Optional<Node> targetResult
-                        = getNode().findByHashCode(Metric.FILE, Integer.parseInt(link));
-                if (targetResult.isPresent() && targetResult.get() instanceof FileNode) {
-                    var fileNode = (FileNode) targetResult.get();
+                var targetResult = loader.findFile(Integer.parseInt(link));
+                if (targetResult.isPresent()) {
+                    var fileNode = targetResult.get();
                     var view = new SourceViewModel(getOwner(), getId(), fileNode);
                     return SourceCodeViewModel.protectedSourceCodeView(view, getOwner(), fileNode.getName());
                 }
@@ -4,9 +4,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 import org.apache.commons.lang3.math.Fraction;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 
@@ -22,10 +25,16 @@ import edu.hm.hafner.coverage.Mutation;
 import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.Value;
-import edu.hm.hafner.util.VisibleForTesting;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.AbstractMap.SimpleEntry;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
@@ -35,20 +44,40 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import hudson.util.XStream2;
 
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.coverage.metrics.model.LineRanges;
 import io.jenkins.plugins.util.AbstractXmlStream;
 import io.jenkins.plugins.util.QualityGateResult.QualityGateResultItem;
 
 /**
- * Configures the XML stream for the coverage tree, which consists of {@link Node}s.
+ * Configures the XML stream for the coverage tree, which consists of {@link Node}s. The XML file can be written
+ * compressed with GZIP. Reading detects the compression automatically, so that plain and compressed files can be
+ * read with any instance of this stream.
+ *
+ * <p>
+ * The deserialized {@link Value} instances and strings (e.g., the names of the packages, classes, and methods) are
+ * interned: equal instances are shared by all trees that have been loaded by this stream.
+ * </p>
  */
 class CoverageXmlStream extends AbstractXmlStream<Node> {
+    private static final Logger LOGGER = Logger.getLogger(CoverageXmlStream.class.getName());
+    private static final String XML_HEADER = "<?xml version='1.1' encoding='UTF-8'?>\n";
+    private static final String EMPTY_ARRAY = "[]";
     private static final Collector<CharSequence, ?, String> ARRAY_JOINER = Collectors.joining(", ", "[", "]");
 
+    private static final Interner<Value> VALUES = Interners.newWeakInterner();
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
     private static String[] toArray(final String value) {
         String cleanInput = Strings.CS.removeEnd(
                 Strings.CS.removeStart(
@@ -57,14 +86,132 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
         return StringUtils.split(cleanInput, ",");
     }
 
+    private final boolean compressed;
+
     /**
-     * Creates an XML stream for {@link Node}.
+     * Creates an XML stream for {@link Node} that writes plain XML files.
      */
     CoverageXmlStream() {
+        this(false);
+    }
+
+    /**
+     * Creates an XML stream for {@link Node}.
+     *
+     * @param compressed
+     *         determines whether the XML files should be written compressed with GZIP
+     */
+    CoverageXmlStream(final boolean compressed) {
         super(Node.class);
+
+        this.compressed = compressed;
+    }
+
+    @Override
+    public Node read(final Path file) {
+        if (!isCompressed(file)) {
+            return super.read(file);
+        }
+        try (var input = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            var result = createStream().fromXML(input);
+            if (result instanceof Node node) {
+                return node;
+            }
+            LOGGER.log(Level.SEVERE, "Compressed file " + file + " does not contain a coverage tree");
+        }
+        catch (IOException | RuntimeException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to read compressed coverage tree from " + file, exception);
+        }
+        return createDefaultValue();
+    }
+
+    @Override
+    public void write(final Path file, final Node root) {
+        if (compressed) {
+            write(file, root, createStream());
+        }
+        else {
+            super.write(file, root);
+        }
+    }
+
+    /**
+     * Writes the skeleton of the specified coverage tree, i.e., the tree without the covered and missed items per
+     * line of the files. The skeleton can be read with any {@link CoverageXmlStream}, the
+     * omitted line data is stored in a {@link LineDataStore}.
+     *
+     * @param file
+     *         the file to write
+     * @param root
+     *         the root of the coverage tree
+     *
+     * @throws IOException
+     *         if the skeleton could not be written
+     */
+    void writeSkeleton(final Path file, final Node root) throws IOException {
+        try (var output = new OutputStreamWriter(createOutputStream(file), StandardCharsets.UTF_8)) {
+            output.write(XML_HEADER);
+            getSkeletonStream().toXML(root, output);
+        }
+    }
+
+    /**
+     * Returns an {@link XStream2} instance that writes the skeleton of a coverage tree, i.e., the tree without the
+     * covered and missed items per line of the files. The skeleton can be read with the default stream of this class.
+     *
+     * @return the stream that writes skeletons
+     */
+    XStream2 getSkeletonStream() {
+        var xStream = createStream();
+        xStream.registerLocalConverter(FileNode.class, "coveredPerLine",
+                new OmittedValueConverter(EMPTY_ARRAY, TreeMap::new));
+        xStream.registerLocalConverter(FileNode.class, "missedPerLine",
+                new OmittedValueConverter(EMPTY_ARRAY, TreeMap::new));
+        return xStream;
+    }
+
+    private void write(final Path file, final Node root, final XStream2 xStream) {
+        try (var output = new OutputStreamWriter(createOutputStream(file), StandardCharsets.UTF_8)) {
+            output.write(XML_HEADER);
+            xStream.toXML(root, output);
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to write coverage tree to " + file, exception);
+        }
+    }
+
+    private OutputStream createOutputStream(final Path file) throws IOException {
+        var output = Files.newOutputStream(file);
+        if (compressed) {
+            return new GZIPOutputStream(output);
+        }
+        return output;
+    }
+
+    /**
+     * Returns whether the specified file has been compressed with GZIP, i.e., whether the file starts with the GZIP
+     * magic number.
+     *
+     * @param file
+     *         the file to check
+     *
+     * @return {@code true} if the file is compressed, {@code false} otherwise
+     */
+    static boolean isCompressed(final Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            var header = input.readNBytes(2);
+            return header.length == 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B;
+        }
+        catch (IOException exception) {
+            return false; // the error will be reported when the file is read
+        }
     }
 
-    @VisibleForTesting
+    /**
+     * Returns an {@link XStream2} instance that reads and writes coverage trees with the mapping of this class.
+     *
+     * @return the stream
+     */
     XStream2 getStream() {
         return createStream();
     }
@@ -72,6 +219,7 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
     @Override
     protected void configureXStream(final XStream2 xStream) {
         registerConverters(xStream);
+        xStream.registerConverter(new InterningStringConverter()); // not registered globally for all build.xml files
 
         xStream.alias("container", ContainerNode.class);
         xStream.alias("module", ModuleNode.class);
@@ -107,7 +255,8 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
         xStream.alias("item", QualityGateResultItem.class);
 
         xStream.registerConverter(new FractionConverter());
-        xStream.registerConverter(new SimpleConverter<>(Value.class, Value::serialize, Value::valueOf));
+        xStream.registerConverter(new SimpleConverter<>(Value.class, Value::serialize,
+                serialized -> VALUES.intern(Value.valueOf(serialized))));
         xStream.registerConverter(new SimpleConverter<>(Metric.class, Metric::name, Metric::valueOf));
     }
 
@@ -116,6 +265,58 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
         return new ModuleNode("Empty");
     }
 
+    /**
+     * {@link Converter} for strings that returns interned instances when reading, so that equal strings of all loaded
+     * trees share the same instance. In contrast to the default string converter of XStream, the length of the
+     * interned strings is not limited, so that long names like the fully qualified names of classes, the paths of
+     * files, or the signatures of methods are interned as well.
+     */
+    static final class InterningStringConverter extends AbstractSingleValueConverter {
+        @Override
+        @SuppressWarnings("rawtypes")
+        public boolean canConvert(final Class type) {
+            return type == String.class;
+        }
+
+        @Override
+        public Object fromString(final String value) {
+            return STRINGS.intern(value);
+        }
+    }
+
+    /**
+     * {@link Converter} that writes a constant value instead of the actual value of a field. This converter is used
+     * to omit the content of a field when writing, the constant must be readable by the converter that is used when
+     * reading. If this converter is used for reading as well, then the field is initialized with an empty value.
+     */
+    static final class OmittedValueConverter implements Converter {
+        private final String value;
+        private final Supplier<Object> emptyValue;
+
+        OmittedValueConverter(final String value, final Supplier<Object> emptyValue) {
+            this.value = value;
+            this.emptyValue = emptyValue;
+        }
+
+        @Override
+        public void marshal(final Object source, final HierarchicalStreamWriter writer,
+                final MarshallingContext context) {
+            if (!value.isEmpty()) {
+                writer.setValue(value);
+            }
+        }
+
+        @Override
+        public Object unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+            return emptyValue.get();
+        }
+
+        @Override
+        public boolean canConvert(final Class type) {
+            return true;
+        }
+    }
+
     /**
      * {@link Converter} for {@link Fraction} instances so that only the values will be serialized. After reading the
      * values back from the stream, the string representation will be converted to an actual instance again.
@@ -278,8 +479,21 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
     }
 
     /**
-     * {@link Converter} for a {@link TreeSet} of integers that serializes just the values. After reading the values
-     * back from the stream, the string representation will be converted to an actual instance again.
+     * {@link Converter} for {@link LineCounters} that stores the counters in the packed format
+     * {@code [line1: covered1/missed1, line2: covered2/missed2, ...]}. Reading scans the values directly into primitive
+     * arrays, so that no boxed maps are created.
+     */
+    static final class LineCountersConverter extends SimpleConverter<LineCounters> {
+        LineCountersConverter() {
+            super(LineCounters.class, LineCounters::serialize, LineCounters::valueOf);
+        }
+    }
+
+    /**
+     * {@link Converter} for a {@link TreeSet} of integers that serializes just the values. Consecutive values are
+     * stored as ranges, e.g. {@code [1-5, 8, 10-20]}, so that the size of the serialized set scales with the number
+     * of ranges. After reading the values back from the stream (ranges or plain lists of values), the string
+     * representation will be converted to an actual instance again.
      */
     static final class IntegerSetConverter implements Converter {
         @SuppressWarnings("unchecked")
@@ -290,7 +504,7 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
         }
 
         String marshal(final Set<Integer> lines) {
-            return lines.stream().map(String::valueOf).collect(ARRAY_JOINER);
+            return "[" + LineRanges.of(lines) + "]";
         }
 
         @Override
@@ -300,7 +514,7 @@ class CoverageXmlStream extends AbstractXmlStream<Node> {
         }
 
         NavigableSet<Integer> unmarshal(final String value) {
-            return Arrays.stream(toArray(value)).map(Integer::valueOf).collect(Collectors.toCollection(TreeSet::new));
+            return LineRanges.valueOf(value).lines().boxed().collect(Collectors.toCollection(TreeSet::new));
         }
 
         @Override
@@ -0,0 +1,101 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+import io.jenkins.plugins.forensics.delta.Delta;
+
+/**
+ * A build scoped cache of the code deltas that have been computed by the SCM. A build might record several coverage
+ * results (e.g., for unit tests, integration tests, and mutation tests) that all compare the build with the same
+ * reference build. Each of these recordings requires the same code delta, so the delta is computed only once and
+ * reused by the subsequent recordings. The cached deltas of a build are dropped as soon as the build is finalized.
+ */
+final class DeltaCache {
+    private static final DeltaCache INSTANCE = new DeltaCache();
+
+    static DeltaCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<Key, Delta> deltas = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the code delta between the specified build and its reference build. If the delta has been computed
+     * already by a previous recording of the build, then the cached delta is returned. Otherwise, the delta is
+     * computed with the specified supplier and stored in the cache.
+     *
+     * @param build
+     *         the build
+     * @param referenceBuild
+     *         the reference build
+     * @param scm
+     *         the SCM key that selects the repository
+     * @param log
+     *         the log
+     * @param calculator
+     *         computes the delta if it has not been cached yet
+     *
+     * @return the code delta, or an empty result if the delta could not be computed
+     */
+    Optional<Delta> get(final Run<?, ?> build, final Run<?, ?> referenceBuild, final String scm,
+            final FilteredLog log, final Supplier<Optional<Delta>> calculator) {
+        var key = new Key(build.getExternalizableId(), referenceBuild.getExternalizableId(), scm);
+        var cached = deltas.get(key);
+        if (cached != null) {
+            log.logInfo("-> Reusing the code delta to build '%s' that has been computed by a previous recording",
+                    referenceBuild.getFullDisplayName());
+            return Optional.of(cached);
+        }
+        var delta = calculator.get(); // computed outside the map to not block other builds
+        delta.ifPresent(value -> deltas.put(key, value));
+        return delta;
+    }
+
+    /**
+     * Removes all cached deltas of the specified build.
+     *
+     * @param build
+     *         the build
+     */
+    void invalidate(final Run<?, ?> build) {
+        var id = build.getExternalizableId();
+        deltas.keySet().removeIf(key -> key.buildId().equals(id));
+    }
+
+    int size() {
+        return deltas.size();
+    }
+
+    /**
+     * Identifies a code delta by the build, the reference build, and the SCM key.
+     *
+     * @param buildId
+     *         the ID of the build
+     * @param referenceBuildId
+     *         the ID of the reference build
+     * @param scm
+     *         the SCM key
+     */
+    record Key(String buildId, String referenceBuildId, String scm) {
+    }
+
+    /**
+     * Drops the cached deltas of a build as soon as the build has been finalized.
+     */
+    @Extension
+    public static class DeltaCacheCleaner extends RunListener<Run<?, ?>> {
+        @Override
+        public void onFinalized(final Run<?, ?> run) {
+            getInstance().invalidate(run);
+        }
+    }
+}
@@ -4,9 +4,6 @@ import edu.hm.hafner.coverage.FileNode;
 import edu.hm.hafner.coverage.Node;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -14,10 +11,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.coverage.metrics.model.LineRanges.LineRangesBuilder;
 import io.jenkins.plugins.forensics.delta.Change;
 import io.jenkins.plugins.forensics.delta.ChangeEditType;
 import io.jenkins.plugins.forensics.delta.FileChanges;
@@ -26,9 +27,38 @@ import io.jenkins.plugins.forensics.delta.FileChanges;
  * Calculates and attaches values to the {@link FileNode nodes} of the coverage tree which represent the changes
  * concerning code and coverage.
  *
+ * <p>
+ * The indirect coverage changes and the coverage deltas of the files are independent of each other, so these values
+ * are computed in parallel for all files. The number of threads can be configured with the system property
+ * {@code io.jenkins.plugins.coverage.metrics.steps.FileChangesProcessor.parallelism}, a value of 1 disables the
+ * parallel computation.
+ * </p>
+ *
  * @author Florian Orendi
  */
 public class FileChangesProcessor {
+    private static final int MINIMUM_FILES_PER_THREAD = 8;
+
+    private final int parallelism;
+
+    /**
+     * Creates a new instance of {@link FileChangesProcessor} that uses the configured parallelism level.
+     */
+    public FileChangesProcessor() {
+        this(SystemProperties.getInteger(FileChangesProcessor.class.getName() + ".parallelism",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a new instance of {@link FileChangesProcessor}.
+     *
+     * @param parallelism
+     *         the maximum number of threads that compute the values of the files
+     */
+    public FileChangesProcessor(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     /**
      * Attaches the changed code lines to the file nodes of the coverage tree.
      *
@@ -43,26 +73,28 @@ public class FileChangesProcessor {
 
         codeChanges.forEach((path, fileChange) -> {
             if (nodePathMapping.containsKey(path)) {
-                var changedNode = nodePathMapping.get(path);
-                attachChanges(changedNode, fileChange.getChangesByType(ChangeEditType.INSERT));
-                attachChanges(changedNode, fileChange.getChangesByType(ChangeEditType.REPLACE));
+                var builder = new LineRangesBuilder();
+                addChanges(builder, fileChange.getChangesByType(ChangeEditType.INSERT));
+                addChanges(builder, fileChange.getChangesByType(ChangeEditType.REPLACE));
+                var modifiedLines = builder.build();
+                if (!modifiedLines.isEmpty()) {
+                    nodePathMapping.get(path).addModifiedLines(modifiedLines.lines().toArray());
+                }
             }
         });
     }
 
     /**
-     * Attaches a set of changes to a specific {@link FileNode node}.
+     * Adds the new lines of a set of changes to the specified line ranges.
      *
-     * @param changedNode
-     *         The node which contains code changes
+     * @param modifiedLines
+     *         The modified lines of a file
      * @param relevantChanges
      *         The relevant changes
      */
-    private void attachChanges(final FileNode changedNode, final Set<Change> relevantChanges) {
+    private void addChanges(final LineRangesBuilder modifiedLines, final Set<Change> relevantChanges) {
         for (Change change : relevantChanges) {
-            for (int i = change.getFromLine(); i <= change.getToLine(); i++) {
-                changedNode.addModifiedLines(i);
-            }
+            modifiedLines.addRange(change.getFromLine(), change.getToLine());
         }
     }
 
@@ -81,9 +113,13 @@ public class FileChangesProcessor {
             final Map<String, String> oldPathMapping) {
         Map<String, FileNode> fileNodes = getFileNodeMappingWithReferencePaths(root, oldPathMapping);
         Map<String, FileNode> referenceFileNodes = getReferenceFileNodeMapping(fileNodes, referenceNode);
-        fileNodes.entrySet().stream()
+        List<Map.Entry<String, FileNode>> filesWithReference = fileNodes.entrySet().stream()
                 .filter(entry -> referenceFileNodes.containsKey(entry.getKey()))
-                .forEach(entry -> attachFileCoverageDelta(entry.getValue(), referenceFileNodes.get(entry.getKey())));
+                .toList();
+
+        // each task modifies only its own file node, the reference nodes are not modified
+        forEachFile(filesWithReference,
+                entry -> attachFileCoverageDelta(entry.getValue(), referenceFileNodes.get(entry.getKey())));
     }
 
     /**
@@ -115,41 +151,88 @@ public class FileChangesProcessor {
         Map<String, FileNode> fileNodes = getFileNodeMappingWithReferencePaths(root, oldPathMapping);
         Map<String, FileNode> referenceFileNodes = getReferenceFileNodeMapping(fileNodes, referenceNode);
 
-        for (Map.Entry<String, FileNode> entry : fileNodes.entrySet()) {
-            var referencePath = entry.getKey();
-            var fileNode = entry.getValue();
+        List<IndirectCoverageChanges> changesPerFile = new ArrayList<>(fileNodes.size());
+        fileNodes.forEach((path, node) -> changesPerFile.add(new IndirectCoverageChanges(path, node)));
+
+        forEachFile(changesPerFile, changes -> {
             Optional<SortedMap<Integer, Integer>> referenceCoveragePerLine =
-                    getReferenceCoveragePerLine(referenceFileNodes, referencePath);
+                    getReferenceCoveragePerLine(referenceFileNodes, changes.referencePath);
             if (referenceCoveragePerLine.isPresent()) {
-                SortedMap<Integer, Integer> referenceCoverageMapping = new TreeMap<>(referenceCoveragePerLine.get());
-                var currentPath = fileNode.getRelativePath();
-                if (codeChanges.containsKey(currentPath)) {
-                    adjustedCoveragePerLine(referenceCoverageMapping, codeChanges.get(currentPath));
-                }
-                attachIndirectCoverageChangeForFile(fileNode, referenceCoverageMapping);
+                var referenceCoverage = LineRemapper.remap(referenceCoveragePerLine.get(),
+                        codeChanges.get(changes.fileNode.getRelativePath()));
+                changes.compute(referenceCoverage);
             }
-        }
+        });
+
+        // the results are attached sequentially, so the file nodes are never modified concurrently
+        changesPerFile.forEach(IndirectCoverageChanges::attach);
     }
 
     /**
-     * Attaches the indirect coverage changes for a specific file, represented by the specified {@link FileNode}.
+     * Runs the specified action for each of the specified files. If there are enough files, the action is executed in
+     * parallel using a dedicated {@link ForkJoinPool}.
      *
-     * @param fileNode
-     *         the file coverage node which represents the processed file
-     * @param referenceCoverageMapping
-     *         a mapping which contains the coverage per line of the reference file
+     * @param files
+     *         the files to process
+     * @param action
+     *         the action to run for each file
+     * @param <T>
+     *         the type of the elements that represent a file
+     */
+    private <T> void forEachFile(final List<T> files, final Consumer<T> action) {
+        if (parallelism == 1 || files.size() < 2 * MINIMUM_FILES_PER_THREAD) {
+            files.forEach(action);
+            return;
+        }
+
+        var pool = new ForkJoinPool(Math.min(parallelism, files.size() / MINIMUM_FILES_PER_THREAD));
+        try {
+            pool.submit(() -> files.parallelStream().forEach(action)).join();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The indirect coverage changes of a specific file, represented by the specified {@link FileNode}. The changes are
+     * computed first (possibly in parallel for different files) and attached to the file node afterward.
      */
-    private void attachIndirectCoverageChangeForFile(final FileNode fileNode,
-            final SortedMap<Integer, Integer> referenceCoverageMapping) {
-        fileNode.getLinesWithCoverage().forEach(line -> {
-            if (!fileNode.hasModifiedLine(line) && referenceCoverageMapping.containsKey(line)) {
-                int referenceCovered = referenceCoverageMapping.get(line);
-                int covered = fileNode.getCoveredOfLine(line);
-                if (covered != referenceCovered) {
-                    fileNode.addIndirectCoverageChange(line, covered - referenceCovered);
+    private static final class IndirectCoverageChanges {
+        private final String referencePath;
+        private final FileNode fileNode;
+        private final SortedMap<Integer, Integer> changes = new TreeMap<>();
+
+        IndirectCoverageChanges(final String referencePath, final FileNode fileNode) {
+            this.referencePath = referencePath;
+            this.fileNode = fileNode;
+        }
+
+        /**
+         * Computes the indirect coverage changes of the file. The file node is not modified.
+         *
+         * @param referenceCoverage
+         *         the coverage per line of the reference file, mapped to the lines of the current file by the
+         *         {@link LineRemapper}
+         */
+        void compute(final int[] referenceCoverage) {
+            fileNode.getLinesWithCoverage().forEach(line -> {
+                int referenceCovered = LineRemapper.getCoverage(referenceCoverage, line);
+                if (!fileNode.hasModifiedLine(line) && referenceCovered != LineRemapper.NO_COVERAGE) {
+                    int covered = fileNode.getCoveredOfLine(line);
+                    if (covered != referenceCovered) {
+                        changes.put(line, covered - referenceCovered);
+                    }
                 }
-            }
-        });
+            });
+        }
+
+        /**
+         * Attaches the computed indirect coverage changes to the file node.
+         */
+        void attach() {
+            changes.forEach(fileNode::addIndirectCoverageChange);
+        }
     }
 
     /**
@@ -174,95 +257,6 @@ public class FileChangesProcessor {
         return Optional.empty();
     }
 
-    /**
-     * Adjusts a coverage-per-line mapping of a file before changes has been applied so that the coverage values can be
-     * compared to the coverage-per-line mapping after code changes within the file.
-     *
-     * @param coveragePerLine
-     *         The coverage-per-line mapping of the file before the changes which should be adjusted
-     * @param fileChanges
-     *         The applied code changes of the file
-     */
-    private void adjustedCoveragePerLine(final SortedMap<Integer, Integer> coveragePerLine,
-            final FileChanges fileChanges) {
-        List<List<Integer>> coverages = transformCoveragePerLine(coveragePerLine, fileChanges);
-
-        fileChanges.getChangesByType(ChangeEditType.DELETE).forEach(change -> {
-            for (int i = change.getChangedFromLine(); i <= change.getChangedToLine(); i++) {
-                coverages.get(i).clear();
-            }
-        });
-
-        fileChanges.getChangesByType(ChangeEditType.INSERT).forEach(change -> {
-            List<Integer> inserted = coverages.get(change.getChangedFromLine());
-            int changedLinesNumber = change.getToLine() - change.getFromLine() + 1;
-            fillCoverageListWithNull(inserted, changedLinesNumber);
-        });
-
-        fileChanges.getChangesByType(ChangeEditType.REPLACE).forEach(change -> {
-            List<Integer> replaced = coverages.get(change.getChangedFromLine());
-            replaced.clear(); // coverage of replaced code is irrelevant
-            int changedLinesNumber = change.getToLine() - change.getFromLine() + 1;
-            fillCoverageListWithNull(replaced, changedLinesNumber);
-            for (int i = change.getChangedFromLine() + 1; i <= change.getChangedToLine(); i++) {
-                coverages.get(i).clear();
-            }
-        });
-
-        List<Integer> adjustedCoveragesList = coverages.stream()
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-
-        coveragePerLine.clear();
-        for (int line = 1; line < adjustedCoveragesList.size(); line++) {
-            var coverage = adjustedCoveragesList.get(line);
-            if (coverage != null) {
-                coveragePerLine.put(line, coverage);
-            }
-        }
-    }
-
-    /**
-     * Transforms a coverage-per-line mapping to a list representation which can be expanded without influencing the
-     * original line numbers.
-     *
-     * @param coveragePerLine
-     *         The coverage-per-line mapping of the file before the changes which should be adjusted
-     * @param fileChanges
-     *         The applied code changes of the file
-     *
-     * @return the list expandable list representation of the coverage-per-line mapping
-     */
-    private List<List<Integer>> transformCoveragePerLine(
-            final SortedMap<Integer, Integer> coveragePerLine, final FileChanges fileChanges) {
-        List<List<Integer>> coverages = coveragePerLine.values().stream()
-                .map(coverage -> new ArrayList<>(Collections.singletonList(coverage)))
-                .collect(Collectors.toList());
-
-        // the highest covered line might not be the highest line which contains changes
-        int maxLineNumber = coveragePerLine.lastKey();
-        Optional<Integer> highestLineNumber = fileChanges.getChanges().values().stream()
-                .flatMap(Set::stream)
-                .map(Change::getChangedToLine)
-                .max(Comparator.naturalOrder());
-        if (highestLineNumber.isPresent() && highestLineNumber.get() > maxLineNumber) {
-            maxLineNumber = highestLineNumber.get();
-        }
-
-        IntStream.range(0, maxLineNumber + 1)
-                .filter(line -> !coveragePerLine.containsKey(line))
-                .forEach(line -> {
-                    if (line < coverages.size()) {
-                        coverages.add(line, new ArrayList<>(Collections.singletonList(null)));
-                    }
-                    else {
-                        coverages.add(new ArrayList<>(Collections.singletonList(null)));
-                    }
-                });
-
-        return coverages;
-    }
-
     /**
      * Gets all {@link FileNode file nodes} from the currently running build which also exist within the
      * reference build and maps them by their fully qualified name from the reference.
@@ -299,18 +293,4 @@ public class FileChangesProcessor {
                 .filter(reference -> nodeMapping.containsKey(reference.getRelativePath()))
                 .collect(Collectors.toMap(FileNode::getRelativePath, Function.identity()));
     }
-
-    /**
-     * Adds {@code null} values to the passed list.
-     *
-     * @param coverageList
-     *         The list which should be filled with {@code null}
-     * @param number
-     *         The number of values to be inserted
-     */
-    private void fillCoverageListWithNull(final List<Integer> coverageList, final int number) {
-        for (int i = 0; i < number; i++) {
-            coverageList.add(null);
-        }
-    }
 }
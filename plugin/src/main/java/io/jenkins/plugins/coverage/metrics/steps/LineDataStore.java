@@ -0,0 +1,311 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * Stores the line data of the files of a coverage tree separately from the tree, i.e., the covered and missed items
+ * per line of each file. The coverage tree is persisted as a skeleton without this data (see
+ * {@link CoverageXmlStream#writeSkeleton(Path, Node)}), so that views that require only the aggregated values do not
+ * need to load the line data of all files. The line data of selected files can be attached to the skeleton on demand,
+ * e.g., to show the source code of a single file.
+ *
+ * <p>
+ * The store starts with a header (magic number and version) followed by an index that contains the relative path
+ * and the block size of each file. The files are stored in the order of {@link Node#getAllFileNodes()}, so that the
+ * blocks of files that are not required can be skipped without decoding. Each block contains the number of lines
+ * followed by the line number and the covered and missed items of each line, all written as plain {@link DataOutput}
+ * integers. The store is written to a temporary file that replaces the target file atomically, so that readers never
+ * see a partially written store.
+ * </p>
+ *
+ * <p>
+ * Note that builds that have been recorded with a skeleton and a line data store cannot be read by plugin versions
+ * that do not know this layout: after a downgrade of the plugin these builds show the aggregated values only.
+ * </p>
+ */
+final class LineDataStore {
+    static final int MAGIC = 0x434F564C; // "COVL"
+    static final int VERSION = 2;
+
+    private LineDataStore() {
+        // prevents instantiation
+    }
+
+    /**
+     * Writes the line data of all files of the specified coverage tree.
+     *
+     * @param file
+     *         the file to write
+     * @param root
+     *         the root of the coverage tree
+     *
+     * @throws IOException
+     *         if the store could not be written
+     */
+    static void write(final Path file, final Node root) throws IOException {
+        write(file, root, new CoverageDigest());
+    }
+
+    /**
+     * Writes the line data of all files of the specified coverage tree. The line data of each file is added to the
+     * specified digest as well, so that the digest does not require another pass over all lines of the tree.
+     *
+     * @param file
+     *         the file to write
+     * @param root
+     *         the root of the coverage tree
+     * @param digest
+     *         the digest that gets the line data of all files
+     *
+     * @throws IOException
+     *         if the store could not be written, the target file is not modified in this case
+     */
+    static void write(final Path file, final Node root, final CoverageDigest digest) throws IOException {
+        var files = root.getAllFileNodes();
+        var temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(files.size());
+                for (FileNode fileNode : files) {
+                    output.writeUTF(fileNode.getRelativePath());
+                    output.writeInt(FileLineData.getLength(fileNode));
+                }
+                for (FileNode fileNode : files) {
+                    var lineData = new FileLineData(fileNode);
+                    digest.add(fileNode.getRelativePath(), lineData.getCounters());
+                    lineData.write(output);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Attaches the line data of the selected files to the specified coverage tree. The tree must have the same
+     * structure as the tree that has been used to write the store.
+     *
+     * @param file
+     *         the file that contains the line data
+     * @param root
+     *         the root of the coverage tree that should get the line data
+     * @param filter
+     *         selects the files that should get the line data
+     *
+     * @throws IllegalStateException
+     *         if the store cannot be read or does not match the specified tree
+     */
+    static void attach(final Path file, final Node root, final Predicate<FileNode> filter) {
+        var files = root.getAllFileNodes();
+        attach(file, files, position -> filter.test(files.get(position)) ? files.get(position) : null);
+    }
+
+    /**
+     * Returns a copy of the first file of the specified skeleton that matches the filter. The line data of this file
+     * is read from the store and attached to the copy, the blocks of all other files are skipped. The skeleton must
+     * have the same structure as the tree that has been used to write the store and will not be modified.
+     *
+     * @param file
+     *         the file that contains the line data
+     * @param skeleton
+     *         the root of the coverage tree without line data
+     * @param filter
+     *         selects the file to read
+     *
+     * @return the file with its line data, or an empty result if the skeleton does not contain a matching file
+     * @throws IllegalStateException
+     *         if the store cannot be read or does not match the specified skeleton
+     */
+    static Optional<FileNode> readFile(final Path file, final Node skeleton, final Predicate<FileNode> filter) {
+        var files = skeleton.getAllFileNodes();
+        for (int position = 0; position < files.size(); position++) {
+            if (filter.test(files.get(position))) {
+                var selected = position;
+                var copy = (FileNode) files.get(position).copyTree();
+                attach(file, files, candidate -> candidate == selected ? copy : null);
+                return Optional.of(copy);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void attach(final Path file, final List<FileNode> files, final IntFunction<FileNode> targets) {
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int size = readHeader(input);
+            if (size != files.size()) {
+                throw new IOException("Line data store contains %d files, but the tree has %d files".formatted(
+                        size, files.size()));
+            }
+            var paths = new String[size];
+            var lengths = new int[size];
+            for (int i = 0; i < size; i++) {
+                paths[i] = input.readUTF();
+                lengths[i] = input.readInt();
+                if (!paths[i].equals(files.get(i).getRelativePath())) {
+                    throw new IOException("Line data store contains file '%s', but the tree has file '%s'".formatted(
+                            paths[i], files.get(i).getRelativePath()));
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                var target = targets.apply(i);
+                if (target == null) {
+                    input.skipNBytes(lengths[i]);
+                }
+                else {
+                    FileLineData.read(input).attach(target);
+                }
+            }
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Failed to read line data from " + file, exception);
+        }
+    }
+
+    private static int readHeader(final DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Data is not a line data store");
+        }
+        var version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of line data store: " + version);
+        }
+        return input.readInt();
+    }
+
+    /**
+     * The line data of a single file.
+     */
+    static final class FileLineData {
+        private static final int INTS_PER_LINE = 3;
+
+        private final int[] lines;
+        private final int[] covered;
+        private final int[] missed;
+
+        FileLineData(final FileNode file) {
+            var linesWithCoverage = file.getLinesWithCoverage();
+            lines = new int[linesWithCoverage.size()];
+            covered = new int[lines.length];
+            missed = new int[lines.length];
+            int index = 0;
+            for (int line : linesWithCoverage) {
+                lines[index] = line;
+                covered[index] = file.getCoveredOfLine(line);
+                missed[index] = file.getMissedOfLine(line);
+                index++;
+            }
+        }
+
+        private FileLineData(final int[] lines, final int[] covered, final int[] missed) {
+            this.lines = lines;
+            this.covered = covered;
+            this.missed = missed;
+        }
+
+        /**
+         * Returns the number of bytes that are required to store the line data of the specified file.
+         *
+         * @param file
+         *         the file
+         *
+         * @return the number of bytes of the block of the file
+         */
+        static int getLength(final FileNode file) {
+            return Integer.BYTES * (1 + INTS_PER_LINE * file.getLinesWithCoverage().size());
+        }
+
+        static FileLineData read(final DataInput input) throws IOException {
+            int size = input.readInt();
+            var lines = new int[size];
+            var covered = new int[size];
+            var missed = new int[size];
+            for (int i = 0; i < size; i++) {
+                lines[i] = input.readInt();
+                covered[i] = input.readInt();
+                missed[i] = input.readInt();
+            }
+            return new FileLineData(lines, covered, missed);
+        }
+
+        void write(final DataOutput output) throws IOException {
+            output.writeInt(lines.length);
+            for (int i = 0; i < lines.length; i++) {
+                output.writeInt(lines[i]);
+                output.writeInt(covered[i]);
+                output.writeInt(missed[i]);
+            }
+        }
+
+        LineCounters getCounters() {
+            return LineCounters.of(lines, covered, missed);
+        }
+
+        void attach(final FileNode file) {
+            getCounters().addTo(file);
+        }
+    }
+
+    /**
+     * Reads a coverage tree skeleton and attaches the line data of all files.
+     */
+    static class AttachingStream extends AbstractXmlStream<Node> {
+        private final AbstractXmlStream<Node> skeletonStream;
+        private final Path lineData;
+
+        /**
+         * Creates a new stream.
+         *
+         * @param skeletonStream
+         *         the stream to read the skeleton with
+         * @param lineData
+         *         the file that contains the line data
+         */
+        AttachingStream(final AbstractXmlStream<Node> skeletonStream, final Path lineData) {
+            super(Node.class);
+
+            this.skeletonStream = skeletonStream;
+            this.lineData = lineData;
+        }
+
+        @Override
+        public Node read(final Path file) {
+            var root = skeletonStream.read(file);
+            attach(lineData, root, fileNode -> true);
+            return root;
+        }
+
+        @Override
+        public void write(final Path file, final Node root) {
+            skeletonStream.write(file, root); // a complete tree can be read as well
+        }
+
+        @Override
+        protected Node createDefaultValue() {
+            return new ModuleNode("Empty");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+
+/**
+ * Maps the coverage per line of a reference file to the line numbers of the changed file. The lines of the reference
+ * file are stored in primitive arrays that are indexed by the line number in the reference file. For each line the
+ * engine tracks whether the original line is still part of the changed file and how many new lines have been inserted
+ * after the line. The edits of the {@link FileChanges} are applied to these arrays (first all deletions, then all
+ * insertions, and finally all replacements). Afterward, the new line numbers are computed in a single pass over the
+ * arrays.
+ */
+final class LineRemapper {
+    /** Marks a line without coverage information. */
+    static final int NO_COVERAGE = Integer.MIN_VALUE;
+
+    private LineRemapper() {
+        // prevents instantiation
+    }
+
+    /**
+     * Maps the coverage per line of a reference file to the line numbers of the changed file.
+     *
+     * @param coveragePerLine
+     *         the number of covered items per line of the reference file
+     * @param fileChanges
+     *         the changes that have been applied to the reference file, or {@code null} if the file has not been
+     *         changed
+     *
+     * @return the number of covered items per line of the changed file, indexed by the line number; lines without
+     *         coverage information are marked with {@link #NO_COVERAGE}
+     */
+    static int[] remap(final Map<Integer, Integer> coveragePerLine, final FileChanges fileChanges) {
+        int maxLine = 0;
+        for (Integer line : coveragePerLine.keySet()) {
+            maxLine = Math.max(maxLine, line);
+        }
+        if (fileChanges == null) {
+            return toArray(coveragePerLine, maxLine);
+        }
+        for (Set<Change> changes : fileChanges.getChanges().values()) {
+            for (Change change : changes) {
+                maxLine = Math.max(maxLine, change.getChangedToLine());
+            }
+        }
+
+        int[] coverage = toArray(coveragePerLine, maxLine);
+        boolean[] removed = new boolean[maxLine + 1];
+        int[] inserted = new int[maxLine + 1];
+
+        for (Change change : fileChanges.getChangesByType(ChangeEditType.DELETE)) {
+            for (int line = change.getChangedFromLine(); line <= change.getChangedToLine(); line++) {
+                clear(removed, inserted, line);
+            }
+        }
+        for (Change change : fileChanges.getChangesByType(ChangeEditType.INSERT)) {
+            inserted[change.getChangedFromLine()] += getNumberOfNewLines(change);
+        }
+        for (Change change : fileChanges.getChangesByType(ChangeEditType.REPLACE)) {
+            int from = change.getChangedFromLine();
+            clear(removed, inserted, from); // coverage of replaced code is irrelevant
+            inserted[from] = getNumberOfNewLines(change);
+            for (int line = from + 1; line <= change.getChangedToLine(); line++) {
+                clear(removed, inserted, line);
+            }
+        }
+
+        return shift(coverage, removed, inserted);
+    }
+
+    private static int[] toArray(final Map<Integer, Integer> coveragePerLine, final int maxLine) {
+        int[] coverage = new int[maxLine + 1];
+        Arrays.fill(coverage, NO_COVERAGE);
+        for (Entry<Integer, Integer> entry : coveragePerLine.entrySet()) {
+            int line = entry.getKey();
+            if (line >= 0) {
+                coverage[line] = entry.getValue();
+            }
+        }
+        return coverage;
+    }
+
+    private static void clear(final boolean[] removed, final int[] inserted, final int line) {
+        removed[line] = true;
+        inserted[line] = 0;
+    }
+
+    private static int getNumberOfNewLines(final Change change) {
+        return change.getToLine() - change.getFromLine() + 1;
+    }
+
+    private static int[] shift(final int[] coverage, final boolean[] removed, final int[] inserted) {
+        int size = 0;
+        for (int line = 0; line < coverage.length; line++) {
+            size += (removed[line] ? 0 : 1) + inserted[line];
+        }
+
+        int[] shifted = new int[size];
+        int newLine = 0;
+        for (int line = 0; line < coverage.length; line++) {
+            if (!removed[line]) {
+                shifted[newLine++] = coverage[line];
+            }
+            for (int i = 0; i < inserted[line]; i++) {
+                shifted[newLine++] = NO_COVERAGE;
+            }
+        }
+        return shifted;
+    }
+
+    /**
+     * Returns the coverage of the specified line in an array that has been created by
+     * {@link #remap(Map, FileChanges)}.
+     *
+     * @param coverage
+     *         the remapped coverage
+     * @param line
+     *         the line
+     *
+     * @return the coverage of the line, or {@link #NO_COVERAGE} if the line has no coverage information
+     */
+    static int getCoverage(final int[] coverage, final int line) {
+        if (line <= 0 || line >= coverage.length) {
+            return NO_COVERAGE;
+        }
+        return coverage[line];
+    }
+}
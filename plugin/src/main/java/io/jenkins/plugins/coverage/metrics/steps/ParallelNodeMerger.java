@@ -0,0 +1,119 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.Node;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Merges a list of coverage trees using a divide-and-conquer strategy. The trees are split into two halves
+ * recursively, the halves are merged in parallel using a dedicated {@link ForkJoinPool}, and the merged halves are
+ * finally merged pairwise. Since merging trees is associative, the result is identical to the sequential merge of
+ * {@link Node#merge(List)}. Small inputs are merged sequentially, the threshold can be configured with the system
+ * property {@code io.jenkins.plugins.coverage.metrics.steps.ParallelNodeMerger.threshold}. The number of threads can
+ * be configured with the system property
+ * {@code io.jenkins.plugins.coverage.metrics.steps.ParallelNodeMerger.parallelism}, a value of 1 disables the
+ * parallel merge.
+ */
+class ParallelNodeMerger {
+    private static final int DEFAULT_THRESHOLD = 32;
+    private static final int SEQUENTIAL_MERGE_SIZE = 4;
+
+    private final int threshold;
+    private final int parallelism;
+
+    ParallelNodeMerger() {
+        this(SystemProperties.getInteger(ParallelNodeMerger.class.getName() + ".threshold", DEFAULT_THRESHOLD),
+                SystemProperties.getInteger(ParallelNodeMerger.class.getName() + ".parallelism",
+                        Runtime.getRuntime().availableProcessors()));
+    }
+
+    ParallelNodeMerger(final int threshold, final int parallelism) {
+        this.threshold = Math.max(2, threshold);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Merges the specified trees into a single tree. Trees with the same name are merged into one tree, trees with
+     * different names are combined in a container node (see {@link Node#merge(List)}).
+     *
+     * @param nodes
+     *         the trees to merge
+     *
+     * @return the merged tree
+     * @throws IllegalArgumentException
+     *         if the list of trees is empty
+     */
+    Node merge(final List<? extends Node> nodes) {
+        if (parallelism == 1 || nodes.size() < threshold) {
+            return Node.merge(nodes);
+        }
+
+        Map<String, List<Node>> nodesByName = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            nodesByName.computeIfAbsent(node.getName(), k -> new ArrayList<>()).add(node);
+        }
+
+        var pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, nodes.size() / SEQUENTIAL_MERGE_SIZE)));
+        try {
+            List<Node> mergedNodes = new ArrayList<>();
+            for (List<Node> sameName : nodesByName.values()) {
+                if (sameName.size() == 1) {
+                    mergedNodes.add(sameName.get(0));
+                }
+                else {
+                    mergedNodes.add(pool.invoke(new MergeTask(sameName, 0, sameName.size())));
+                }
+            }
+            return Node.merge(mergedNodes);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Merges the trees in the range {@code [from, to)} of a list of trees with the same name.
+     */
+    private static final class MergeTask extends RecursiveTask<Node> {
+        @Serial
+        private static final long serialVersionUID = 3617946387419470526L;
+
+        @SuppressWarnings("serial")
+        private final List<Node> nodes;
+        private final int from;
+        private final int to;
+
+        MergeTask(final List<Node> nodes, final int from, final int to) {
+            super();
+
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            if (to - from <= SEQUENTIAL_MERGE_SIZE) {
+                var merged = nodes.get(from);
+                for (int i = from + 1; i < to; i++) {
+                    merged = merged.merge(nodes.get(i));
+                }
+                return merged;
+            }
+
+            int middle = (from + to) >>> 1;
+            var left = new MergeTask(nodes, from, middle);
+            left.fork();
+            var right = new MergeTask(nodes, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.Parser;
+
+/**
+ * A content addressed cache of parsed coverage reports. The cache lives in the JVM of the agent that parses the
+ * reports and maps the SHA-256 hash of a report file (together with the parser and the processing mode) to the parsed
+ * {@link ModuleNode modules} of the file and the messages of the parser. The size of the cache is bounded by the
+ * estimated retained heap size of the cached modules (see {@link CoverageTreeCache#estimateSize(Node)}), the least
+ * recently used entries will be evicted first. The maximum size can be configured with the system property
+ * {@code io.jenkins.plugins.coverage.metrics.steps.ParsedReportCache.maximumSize} (in bytes).
+ */
+final class ParsedReportCache {
+    private static final long DEFAULT_MAXIMUM_SIZE = 256L * 1024 * 1024;
+    private static final ParsedReportCache INSTANCE = new ParsedReportCache(
+            SystemProperties.getLong(ParsedReportCache.class.getName() + ".maximumSize", DEFAULT_MAXIMUM_SIZE));
+
+    static ParsedReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final long maximumSize;
+    private final Map<Key, CachedReport> reports = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    ParsedReportCache(final long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Computes the key of the specified report file.
+     *
+     * @param file
+     *         the report file
+     * @param parser
+     *         the parser that will be used to parse the file
+     * @param processingMode
+     *         the processing mode of the parser
+     *
+     * @return the key of the report
+     * @throws IOException
+     *         if the file could not be read
+     */
+    static Key createKey(final Path file, final Parser parser, final ProcessingMode processingMode)
+            throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return new Key(HexFormat.of().formatHex(digest.digest()), parser, processingMode);
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    /**
+     * Returns a copy of the cached modules of the report with the specified key. The info and error messages that the
+     * parser reported while parsing the report are replayed into the specified log.
+     *
+     * @param key
+     *         the key of the report
+     * @param log
+     *         the log to replay the messages of the parser to
+     *
+     * @return a copy of the cached modules, or an empty result if the report has not been cached yet
+     */
+    Optional<List<ModuleNode>> get(final Key key, final FilteredLog log) {
+        CachedReport report;
+        synchronized (this) {
+            report = reports.get(key);
+        }
+        if (report == null) {
+            return Optional.empty();
+        }
+        report.infoMessages().forEach(message -> log.logInfo("%s", message));
+        report.errorMessages().forEach(message -> log.logError("%s", message));
+        return Optional.of(copy(report.modules()));
+    }
+
+    /**
+     * Stores a copy of the specified modules and the messages of the parser in the cache. Reports whose estimated heap
+     * size is larger than the cache will be skipped.
+     *
+     * @param key
+     *         the key of the report
+     * @param modules
+     *         the modules of the parsed report
+     * @param parserLog
+     *         the log that contains the messages of the parser for this report only
+     */
+    void put(final Key key, final List<ModuleNode> modules, final FilteredLog parserLog) {
+        long estimatedSize = modules.stream().mapToLong(CoverageTreeCache::estimateSize).sum();
+        if (estimatedSize > maximumSize) {
+            return;
+        }
+        var copy = new CachedReport(copy(modules), List.copyOf(parserLog.getInfoMessages()),
+                List.copyOf(parserLog.getErrorMessages()), estimatedSize);
+        synchronized (this) {
+            var previous = reports.put(key, copy);
+            if (previous != null) {
+                size -= previous.size();
+            }
+            size += estimatedSize;
+            var iterator = reports.values().iterator();
+            while (size > maximumSize && iterator.hasNext()) {
+                size -= iterator.next().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    private List<ModuleNode> copy(final List<ModuleNode> modules) {
+        return modules.stream().map(module -> (ModuleNode) module.copyTree()).toList();
+    }
+
+    synchronized int getEntries() {
+        return reports.size();
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Identifies a parsed report by the hash of its content, the parser, and the processing mode.
+     *
+     * @param hash
+     *         the SHA-256 hash of the report content
+     * @param parser
+     *         the parser
+     * @param processingMode
+     *         the processing mode of the parser
+     */
+    record Key(String hash, Parser parser, ProcessingMode processingMode) {
+    }
+
+    private record CachedReport(List<ModuleNode> modules, List<String> infoMessages, List<String> errorMessages,
+                                long size) {
+    }
+}
@@ -6,11 +6,14 @@ import edu.hm.hafner.util.PathUtil;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serial;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -52,6 +55,38 @@ public class PathResolver {
     public Map<String, String> resolvePaths(final Set<String> relativePaths,
             final Set<String> requestedSourceDirectories,
             final FilePath workspace, final FilteredLog log) throws InterruptedException {
+        return resolveAllPaths(relativePaths, requestedSourceDirectories, workspace, Map.of(), true, log)
+                .entrySet()
+                .stream()
+                .filter(entry -> !entry.getKey().equals(entry.getValue()))
+                .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+    }
+
+    /**
+     * Resolves source code files on the agent using the stored paths of the coverage reports. In contrast to
+     * {@link #resolvePaths(Set, Set, FilePath, FilteredLog)} the returned mapping contains all resolved paths, even if
+     * the resolved path is equal to the original path. The mapping of a previous build can be used to skip the
+     * resolving of paths: the previously resolved paths will be reused if the target files still exist.
+     *
+     * @param relativePaths
+     *         the relative paths to map
+     * @param requestedSourceDirectories
+     *         the requested relative and absolute source directories (in the step configuration)
+     * @param workspace
+     *         the workspace that contains the source code files
+     * @param previousMapping
+     *         the resolved paths of a previous build
+     * @param followSymbolicLinks
+     *         determines whether symbolic links should be followed when searching for source code files
+     * @param log
+     *         the log to write to
+     *
+     * @return the resolved paths as mapping of relative to absolute paths
+     */
+    public Map<String, String> resolveAllPaths(final Set<String> relativePaths,
+            final Set<String> requestedSourceDirectories, final FilePath workspace,
+            final Map<String, String> previousMapping, final boolean followSymbolicLinks, final FilteredLog log)
+            throws InterruptedException {
         try {
             Set<String> permittedSourceDirectories = PrismConfiguration.getInstance()
                     .getSourceDirectories()
@@ -59,7 +94,8 @@ public class PathResolver {
                     .map(PermittedSourceCodeDirectory::getPath)
                     .collect(Collectors.toSet());
 
-            var resolver = new AgentPathResolver(relativePaths, permittedSourceDirectories, requestedSourceDirectories);
+            var resolver = new AgentPathResolver(relativePaths, permittedSourceDirectories, requestedSourceDirectories,
+                    previousMapping, followSymbolicLinks);
             var agentLog = workspace.act(resolver);
             log.merge(agentLog);
             return agentLog.getResult();
@@ -73,13 +109,17 @@ public class PathResolver {
     /**
      * Resolves source code files on the agent using the stored paths of the coverage reports. Since these paths are
      * relative, this resolver tries to find the absolute paths by guessing the prefix to the relative path. It also
-     * evaluates the defined source paths as prefixes when resolving the absolute paths.
+     * evaluates the defined source paths as prefixes when resolving the absolute paths. If there are many paths to
+     * resolve, then the existence of the candidate files is checked using a {@link SourceFileIndex} that is created
+     * with a single traversal of the permitted source directories (or the workspace if there are no source
+     * directories). Otherwise, the candidate files are checked in the file system directly.
      */
     @SuppressWarnings("PMD.LooseCoupling")
     static class AgentPathResolver extends MasterToSlaveFileCallable<RemoteResultWrapper<HashMap<String, String>>> {
         @Serial
         private static final long serialVersionUID = 3966282357309568323L;
         private static final PathUtil PATH_UTIL = new PathUtil();
+        private static final int MINIMUM_LOOKUPS_FOR_INDEX = 1000;
 
         @SuppressWarnings("serial")
         private final Set<String> relativePaths;
@@ -87,6 +127,9 @@ public class PathResolver {
         private final Set<String> permittedSourceDirectories;
         @SuppressWarnings("serial")
         private final Set<String> requestedSourceDirectories;
+        @SuppressWarnings("serial")
+        private final Map<String, String> previousMapping;
+        private final boolean followSymbolicLinks;
 
         /**
          * Creates a new instance of {@link AgentPathResolver}.
@@ -101,11 +144,54 @@ public class PathResolver {
         AgentPathResolver(final Set<String> relativePaths,
                 final Set<String> permittedSourceDirectories,
                 final Set<String> requestedSourceDirectories) {
+            this(relativePaths, permittedSourceDirectories, requestedSourceDirectories, Map.of());
+        }
+
+        /**
+         * Creates a new instance of {@link AgentPathResolver}.
+         *
+         * @param relativePaths
+         *         the relative paths to map
+         * @param permittedSourceDirectories
+         *         the permitted source code directories (in Jenkins global configuration)
+         * @param requestedSourceDirectories
+         *         the requested relative and absolute source directories (in the step configuration)
+         * @param previousMapping
+         *         the resolved paths of a previous build that should be reused if the target files still exist
+         */
+        AgentPathResolver(final Set<String> relativePaths,
+                final Set<String> permittedSourceDirectories,
+                final Set<String> requestedSourceDirectories,
+                final Map<String, String> previousMapping) {
+            this(relativePaths, permittedSourceDirectories, requestedSourceDirectories, previousMapping, true);
+        }
+
+        /**
+         * Creates a new instance of {@link AgentPathResolver}.
+         *
+         * @param relativePaths
+         *         the relative paths to map
+         * @param permittedSourceDirectories
+         *         the permitted source code directories (in Jenkins global configuration)
+         * @param requestedSourceDirectories
+         *         the requested relative and absolute source directories (in the step configuration)
+         * @param previousMapping
+         *         the resolved paths of a previous build that should be reused if the target files still exist
+         * @param followSymbolicLinks
+         *         determines whether symbolic links should be followed when searching for source code files
+         */
+        AgentPathResolver(final Set<String> relativePaths,
+                final Set<String> permittedSourceDirectories,
+                final Set<String> requestedSourceDirectories,
+                final Map<String, String> previousMapping,
+                final boolean followSymbolicLinks) {
             super();
 
             this.relativePaths = new HashSet<>(relativePaths);
             this.permittedSourceDirectories = new HashSet<>(permittedSourceDirectories);
             this.requestedSourceDirectories = new HashSet<>(requestedSourceDirectories);
+            this.previousMapping = new HashMap<>(previousMapping);
+            this.followSymbolicLinks = followSymbolicLinks;
         }
 
         @Override
@@ -126,10 +212,31 @@ public class PathResolver {
             }
 
             var workspace = new FilePath(workspaceFile);
-            var mapping = relativePaths.stream()
-                    .map(path -> new SimpleEntry<>(path, locateSource(path, workspace, sourceDirectories, log)))
-                    .filter(entry -> entry.getValue().isPresent())
-                    .collect(Collectors.toMap(Entry::getKey, entry -> entry.getValue().get()));
+            var mapping = new HashMap<String, String>();
+            Set<String> unresolvedPaths = new HashSet<>();
+            for (String relativePath : relativePaths) {
+                var previous = previousMapping.get(relativePath);
+                if (previous != null && isValid(previous, workspace, sourceDirectories)) {
+                    mapping.put(relativePath, previous);
+                }
+                else {
+                    unresolvedPaths.add(relativePath);
+                }
+            }
+            int reused = mapping.size();
+
+            if (!unresolvedPaths.isEmpty()) {
+                var index = createIndex(workspaceFile.toPath(), sourceDirectories, unresolvedPaths.size(), log);
+                unresolvedPaths.stream()
+                        .map(path -> new SimpleEntry<>(path,
+                                locateSource(path, workspace, sourceDirectories, index, log)))
+                        .filter(entry -> entry.getValue().isPresent())
+                        .forEach(entry -> mapping.put(entry.getKey(), entry.getValue().get()));
+            }
+            if (!previousMapping.isEmpty()) {
+                log.logInfo("-> reused %d source paths of previous build, resolved %d source paths",
+                        reused, mapping.size() - reused);
+            }
 
             if (mapping.size() == relativePaths.size()) {
                 log.logInfo("-> resolved absolute paths for all %d source files", mapping.size());
@@ -139,11 +246,7 @@ public class PathResolver {
                         mapping.size(), relativePaths.size() - mapping.size());
             }
 
-            var changedFileMapping = mapping.entrySet()
-                    .stream()
-                    .filter(entry -> !entry.getKey().equals(entry.getValue()))
-                    .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-            var result = new RemoteResultWrapper<>(new HashMap<>(changedFileMapping), "Errors during source path resolving:");
+            var result = new RemoteResultWrapper<>(mapping, "Errors during source path resolving:");
             result.merge(log);
             return result;
         }
@@ -154,34 +257,71 @@ public class PathResolver {
                     permittedSourceDirectories, requestedSourceDirectories, log);
         }
 
+        private boolean isValid(final String resolvedPath, final FilePath workspace,
+                final Set<String> sourceDirectories) {
+            try {
+                var file = Path.of(workspace.getRemote()).resolve(resolvedPath).normalize();
+                return Files.isRegularFile(file)
+                        && new FilePermissionEnforcer().isInWorkspace(file.toString(), workspace, sourceDirectories);
+            }
+            catch (InvalidPathException exception) {
+                return false;
+            }
+        }
+
+        private SourceFileIndex createIndex(final Path workspace, final Set<String> sourceDirectories,
+                final int unresolvedPaths, final FilteredLog log) {
+            if (unresolvedPaths * (sourceDirectories.size() + 2) < MINIMUM_LOOKUPS_FOR_INDEX) {
+                return SourceFileIndex.empty(followSymbolicLinks); // the traversal is more expensive than the lookups
+            }
+
+            List<Path> roots;
+            if (sourceDirectories.isEmpty()) {
+                roots = List.of(workspace);
+            }
+            else {
+                roots = sourceDirectories.stream().map(workspace::resolve).collect(Collectors.toList());
+            }
+            var index = SourceFileIndex.create(roots, followSymbolicLinks, log);
+            log.logInfo("-> indexed %d files", index.size());
+            return index;
+        }
+
         private Optional<String> locateSource(final String relativePath, final FilePath workspace,
-                final Set<String> sourceSearchDirectories, final FilteredLog log) {
+                final Set<String> sourceSearchDirectories, final SourceFileIndex index, final FilteredLog log) {
             try {
-                var absolutePath = new FilePath(new File(relativePath));
-                if (absolutePath.exists()) {
-                    return enforcePermissionFor(absolutePath, workspace, sourceSearchDirectories, log);
+                var path = Path.of(relativePath);
+                if (path.isAbsolute() && index.exists(path)) {
+                    return enforcePermissionFor(path, workspace, sourceSearchDirectories, log);
                 }
 
-                var relativePathInWorkspace = workspace.child(relativePath);
-                if (relativePathInWorkspace.exists()) {
+                var workspacePath = Path.of(workspace.getRemote());
+                var relativePathInWorkspace = workspacePath.resolve(path);
+                if (index.exists(relativePathInWorkspace)) {
                     return enforcePermissionFor(relativePathInWorkspace, workspace, sourceSearchDirectories, log);
                 }
 
                 for (String sourceFolder : sourceSearchDirectories) {
-                    var sourcePath = workspace.child(sourceFolder).child(relativePath);
-                    if (sourcePath.exists()) {
+                    var sourcePath = workspacePath.resolve(sourceFolder).resolve(path);
+                    if (index.exists(sourcePath)) {
                         return enforcePermissionFor(sourcePath, workspace, sourceSearchDirectories, log);
                     }
                 }
 
                 log.logError("- Source file '%s' not found", relativePath);
             }
-            catch (InvalidPathException | IOException | InterruptedException exception) {
+            catch (InvalidPathException exception) {
                 log.logException(exception, "No valid path in coverage node: '%s'", relativePath);
             }
             return Optional.empty();
         }
 
+        private Optional<String> enforcePermissionFor(final Path absolutePath, final FilePath workspace,
+                final Set<String> sourceDirectories, final FilteredLog log) {
+            return enforcePermissionFor(new FilePath(absolutePath.normalize().toFile()), workspace, sourceDirectories,
+                    log);
+        }
+
         private Optional<String> enforcePermissionFor(final FilePath absolutePath, final FilePath workspace,
                 final Set<String> sourceDirectories, final FilteredLog log) {
             var enforcer = new FilePermissionEnforcer();
@@ -0,0 +1,127 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serial;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.util.XStream2;
+
+/**
+ * Persists the resolved source paths of the last build of a job, so that the next build can reuse the mapping. Paths
+ * that could not be resolved are stored as well, so that the next build does not search for these paths again. The
+ * results of each recorder ID are stored in a separate file in the root folder of the job. Stored results are only
+ * reused if the source directories of the recorder have not been changed.
+ */
+class ResolvedPathsStore {
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("resolvedPaths", ResolvedPaths.class);
+    }
+
+    /**
+     * Loads the resolved paths of the previous build.
+     *
+     * @param job
+     *         the job of the build
+     * @param id
+     *         the ID of the coverage recorder
+     * @param sourceDirectories
+     *         the source directories of the current build
+     * @param log
+     *         the log
+     *
+     * @return the resolved paths of the previous build, or an empty result if no paths have been stored yet
+     */
+    ResolvedPaths load(final Job<?, ?> job, final String id, final Set<String> sourceDirectories,
+            final FilteredLog log) {
+        var file = createFile(job, id);
+        if (!file.exists()) {
+            return new ResolvedPaths(sourceDirectories, Map.of(), Set.of());
+        }
+        try {
+            if (file.read() instanceof ResolvedPaths stored
+                    && stored.sourceDirectories != null && stored.mapping != null
+                    && stored.sourceDirectories.equals(new TreeSet<>(sourceDirectories))) {
+                return stored;
+            }
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't read resolved source paths from '%s'", file);
+        }
+        return new ResolvedPaths(sourceDirectories, Map.of(), Set.of());
+    }
+
+    /**
+     * Stores the resolved paths of the current build.
+     *
+     * @param job
+     *         the job of the build
+     * @param id
+     *         the ID of the coverage recorder
+     * @param sourceDirectories
+     *         the source directories of the current build
+     * @param mapping
+     *         the resolved paths
+     * @param unresolvedPaths
+     *         the paths that could not be resolved
+     * @param log
+     *         the log
+     */
+    void save(final Job<?, ?> job, final String id, final Set<String> sourceDirectories,
+            final Map<String, String> mapping, final Set<String> unresolvedPaths, final FilteredLog log) {
+        var file = createFile(job, id);
+        try {
+            file.write(new ResolvedPaths(sourceDirectories, mapping, unresolvedPaths));
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't write resolved source paths to '%s'", file);
+        }
+    }
+
+    private XmlFile createFile(final Job<?, ?> job, final String id) {
+        return new XmlFile(XSTREAM, new File(job.getRootDir(), "coverage-source-paths-%s.xml".formatted(id)));
+    }
+
+    /**
+     * The resolved and unresolved paths of a build and the source directories that have been used to resolve the
+     * paths.
+     */
+    @SuppressWarnings("PMD.LooseCoupling")
+    static final class ResolvedPaths {
+        private final TreeSet<String> sourceDirectories;
+        private final TreeMap<String, String> mapping;
+        private /* almost final */ TreeSet<String> unresolvedPaths; // not available in older files
+
+        ResolvedPaths(final Set<String> sourceDirectories, final Map<String, String> mapping,
+                final Set<String> unresolvedPaths) {
+            this.sourceDirectories = new TreeSet<>(sourceDirectories);
+            this.mapping = new TreeMap<>(mapping);
+            this.unresolvedPaths = new TreeSet<>(unresolvedPaths);
+        }
+
+        Map<String, String> getMapping() {
+            return mapping;
+        }
+
+        Set<String> getUnresolvedPaths() {
+            return unresolvedPaths;
+        }
+
+        @Serial
+        private Object readResolve() {
+            if (unresolvedPaths == null) {
+                unresolvedPaths = new TreeSet<>();
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.Node;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * The file formats that are used to persist the coverage tree of a build. The format of new builds can be selected
+ * with the system property {@code io.jenkins.plugins.coverage.metrics.steps.ResultFormat.default} (one of {@code XML},
+ * {@code XML_GZIP}, or {@code BINARY}), the default is compressed XML. Existing builds remember the format they have
+ * been written with, so changing the property does not affect the results of older builds.
+ */
+enum ResultFormat {
+    /** XML serialization with XStream, see {@link CoverageXmlStream}. */
+    XML("%s.xml", CoverageXmlStream::new),
+    /** XML serialization with XStream that is compressed with GZIP, see {@link CoverageXmlStream}. */
+    XML_GZIP("%s.xml.gz", () -> new CoverageXmlStream(true)),
+    /** Compact binary format, see {@link CoverageBinaryStream}. */
+    BINARY("%s.cov", CoverageBinaryStream::new);
+
+    private final String fileNamePattern;
+    private final Supplier<AbstractXmlStream<Node>> streamFactory;
+
+    ResultFormat(final String fileNamePattern, final Supplier<AbstractXmlStream<Node>> streamFactory) {
+        this.fileNamePattern = fileNamePattern;
+        this.streamFactory = streamFactory;
+    }
+
+    /**
+     * Returns the format that should be used for new builds.
+     *
+     * @return the format for new builds
+     */
+    static ResultFormat getDefault() {
+        var format = SystemProperties.getString(ResultFormat.class.getName() + ".default", XML_GZIP.name());
+        try {
+            return valueOf(format.toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException exception) {
+            return XML_GZIP;
+        }
+    }
+
+    /**
+     * Returns the name of the file that stores the result with the specified ID.
+     *
+     * @param id
+     *         the ID of the result
+     *
+     * @return the file name
+     */
+    String getFileName(final String id) {
+        return fileNamePattern.formatted(id);
+    }
+
+    /**
+     * Returns the format whose file can be used as replacement if the file of this format does not exist. Plain and
+     * compressed XML files can be read by the same stream, so an administrator can compress or decompress the XML
+     * files of existing builds.
+     *
+     * @return the alternative format
+     */
+    ResultFormat getAlternative() {
+        return switch (this) {
+            case XML -> XML_GZIP;
+            case XML_GZIP -> XML;
+            case BINARY -> BINARY;
+        };
+    }
+
+    /**
+     * Creates a new stream to read and write the coverage tree in this format.
+     *
+     * @return the stream
+     */
+    AbstractXmlStream<Node> createStream() {
+        return streamFactory.get();
+    }
+}
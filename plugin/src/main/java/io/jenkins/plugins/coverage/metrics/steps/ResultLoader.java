@@ -0,0 +1,74 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.Node;
+
+import java.util.Optional;
+
+/**
+ * Loads the parts of a coverage tree that are rendered by the individual views. Views that show a single file or the
+ * modified files only do not need to load the line data of all files (see {@link LineDataStore} and
+ * {@link CoverageBinaryStream}).
+ *
+ * <p>
+ * Partial loading is limited to these two cases: there is no loader for the subtree of a single module or package.
+ * Modules and packages are always rendered from the tree returned by {@link #getTree()}, which provides the aggregated
+ * values of all nodes but not necessarily the line data of all files.
+ * </p>
+ */
+interface ResultLoader {
+    /**
+     * Creates a loader for a coverage tree that is already in memory.
+     *
+     * @param tree
+     *         the coverage tree
+     *
+     * @return the loader
+     */
+    static ResultLoader of(final Node tree) {
+        return new ResultLoader() {
+            @Override
+            public Node getTree() {
+                return tree;
+            }
+
+            @Override
+            public Optional<FileNode> findFile(final int pathHash) {
+                return tree.findByHashCode(Metric.FILE, pathHash)
+                        .filter(FileNode.class::isInstance)
+                        .map(FileNode.class::cast);
+            }
+
+            @Override
+            public Node getModifiedFiles() {
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * Returns the complete coverage tree.
+     *
+     * @return the coverage tree
+     */
+    Node getTree();
+
+    /**
+     * Returns the file with the specified hash code of its relative path.
+     *
+     * @param pathHash
+     *         the hash code of the relative path of the file, as used in the links of the coverage views
+     *
+     * @return the file, or an empty result if there is no such file
+     */
+    Optional<FileNode> findFile(int pathHash);
+
+    /**
+     * Returns a coverage tree that contains at least all files with modified lines. Other files might be part of the
+     * returned tree as well.
+     *
+     * @return a coverage tree with the modified files
+     */
+    Node getModifiedFiles();
+}
@@ -0,0 +1,169 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An in-memory index of the files in the source directories of a build. The index is created with a single traversal
+ * of each source directory, nested source directories are covered by the traversal of the enclosing directory. The
+ * files are indexed by their file name, i.e., by the last segment of their path. Afterward, the existence of a file
+ * below one of the indexed source directories can be checked without accessing the file system again. Symbolic links
+ * are only followed if this has been enabled in the step configuration.
+ */
+class SourceFileIndex {
+    private static final String GIT_FOLDER = ".git";
+
+    private final List<Path> roots = new ArrayList<>();
+    private final Map<String, Set<Path>> filesByName = new HashMap<>();
+    private final boolean followSymbolicLinks;
+
+    /**
+     * Creates an index of all files in the specified source directories.
+     *
+     * @param sourceDirectories
+     *         the absolute paths of the source directories
+     * @param followSymbolicLinks
+     *         determines whether symbolic links should be followed
+     * @param log
+     *         the log
+     *
+     * @return the created index
+     */
+    static SourceFileIndex create(final Collection<Path> sourceDirectories, final boolean followSymbolicLinks,
+            final FilteredLog log) {
+        var index = new SourceFileIndex(followSymbolicLinks);
+
+        for (Path sourceDirectory : sourceDirectories) {
+            var root = normalize(sourceDirectory);
+            if (index.roots.stream().noneMatch(root::startsWith)) {
+                index.roots.removeIf(other -> other.startsWith(root));
+                index.roots.add(root);
+            }
+        }
+        for (Path root : index.roots) {
+            index.scan(root, log);
+        }
+        return index;
+    }
+
+    /**
+     * Creates an empty index that checks the existence of all files in the file system.
+     *
+     * @param followSymbolicLinks
+     *         determines whether symbolic links should be followed
+     *
+     * @return the created index
+     */
+    static SourceFileIndex empty(final boolean followSymbolicLinks) {
+        return new SourceFileIndex(followSymbolicLinks);
+    }
+
+    private SourceFileIndex(final boolean followSymbolicLinks) {
+        this.followSymbolicLinks = followSymbolicLinks;
+    }
+
+    private static Path normalize(final Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private void scan(final Path root, final FilteredLog log) {
+        if (!Files.isDirectory(root, getLinkOptions())) {
+            return;
+        }
+        try {
+            Files.walkFileTree(root, getVisitOptions(), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                    if (GIT_FOLDER.equals(String.valueOf(dir.getFileName()))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() || followSymbolicLinks && !attrs.isDirectory()) {
+                        filesByName.computeIfAbsent(getName(file), k -> new HashSet<>()).add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException exception) {
+                    return FileVisitResult.CONTINUE; // e.g., file system loops or missing permissions
+                }
+            });
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't create index of source files in '%s'", root);
+        }
+    }
+
+    private Set<FileVisitOption> getVisitOptions() {
+        return followSymbolicLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
+    }
+
+    private LinkOption[] getLinkOptions() {
+        return followSymbolicLinks ? new LinkOption[0] : new LinkOption[] {LinkOption.NOFOLLOW_LINKS};
+    }
+
+    private static String getName(final Path file) {
+        return String.valueOf(file.getFileName());
+    }
+
+    /**
+     * Returns whether the specified file exists. If the file is not located below one of the indexed source
+     * directories, then the result is unknown.
+     *
+     * @param file
+     *         the absolute path of the file
+     *
+     * @return {@code true} if the file exists, {@code false} if the file does not exist, or an empty result if the file
+     *         is not part of the index
+     */
+    Optional<Boolean> contains(final Path file) {
+        var normalized = normalize(file);
+        if (roots.stream().noneMatch(normalized::startsWith)) {
+            return Optional.empty();
+        }
+        return Optional.of(filesByName.getOrDefault(getName(normalized), Set.of()).contains(normalized));
+    }
+
+    /**
+     * Returns whether the specified file exists. Files that are not part of the index are checked in the file system.
+     *
+     * @param file
+     *         the absolute path of the file
+     *
+     * @return {@code true} if the file exists, {@code false} otherwise
+     */
+    boolean exists(final Path file) {
+        return contains(file).orElseGet(() -> Files.isRegularFile(file, getLinkOptions()));
+    }
+
+    /**
+     * Returns the total number of indexed files.
+     *
+     * @return the number of files
+     */
+    int size() {
+        return filesByName.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,92 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import edu.hm.hafner.coverage.ClassNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.PackageNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the test classes of test reports to the packages of a coverage tree. The packages of the coverage tree are
+ * indexed once by their name, so that each test class is merged only with the packages that have the same name as the
+ * package of the test class. Test classes that cannot be merged with a class of the coverage tree are added to the
+ * first package with a matching name. If the coverage tree has no such package, then a new package will be created.
+ */
+class TestClassMapper {
+    /**
+     * Maps the specified test classes to the packages of the coverage tree.
+     *
+     * @param coverageTree
+     *         the coverage tree
+     * @param testClasses
+     *         the test classes to map
+     */
+    void mapTests(final Node coverageTree, final Collection<ClassNode> testClasses) {
+        var packages = indexPackages(coverageTree);
+
+        for (var entry : groupByPackage(testClasses).entrySet()) {
+            var packageName = entry.getKey();
+            var candidates = packages.get(packageName);
+            if (candidates == null) {
+                var packageNode = new PackageNode(packageName);
+                coverageTree.addChild(packageNode);
+                packages.put(packageName, List.of(packageNode));
+                entry.getValue().forEach(packageNode::addChild);
+            }
+            else {
+                Collection<ClassNode> unmapped = entry.getValue();
+                for (PackageNode candidate : candidates) {
+                    if (unmapped.isEmpty()) {
+                        break;
+                    }
+                    unmapped = candidate.mergeTests(new ArrayList<>(unmapped));
+                }
+                unmapped.forEach(candidates.get(0)::addChild);
+            }
+        }
+    }
+
+    /**
+     * Creates an index of all packages of the coverage tree. Packages with the same name (e.g., in different modules)
+     * are stored in the order of a depth-first traversal of the tree.
+     *
+     * @param coverageTree
+     *         the coverage tree
+     *
+     * @return the packages of the tree, indexed by their name
+     */
+    private Map<String, List<PackageNode>> indexPackages(final Node coverageTree) {
+        Map<String, List<PackageNode>> packages = new HashMap<>();
+        Deque<Node> nodes = new ArrayDeque<>();
+        nodes.push(coverageTree);
+        while (!nodes.isEmpty()) {
+            var node = nodes.pop();
+            if (node instanceof PackageNode packageNode) {
+                packages.computeIfAbsent(packageNode.getName(), k -> new ArrayList<>()).add(packageNode);
+            }
+            else {
+                var children = node.getChildren();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    nodes.push(children.get(i));
+                }
+            }
+        }
+        return packages;
+    }
+
+    private Map<String, List<ClassNode>> groupByPackage(final Collection<ClassNode> testClasses) {
+        Map<String, List<ClassNode>> classesByPackage = new LinkedHashMap<>();
+        for (ClassNode testClass : testClasses) {
+            classesByPackage.computeIfAbsent(PackageNode.normalizePackageName(testClass.getPackageName()),
+                    k -> new ArrayList<>()).add(testClass);
+        }
+        return classesByPackage;
+    }
+}
@@ -0,0 +1,111 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.Node;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompactTransportTest extends AbstractCoverageTest {
+    @Test
+    void shouldRestoreCoverageTrees() {
+        var trees = new ArrayList<Node>();
+        trees.add(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+        trees.add(readJacocoResult(JACOCO_CODING_STYLE_FILE));
+
+        var file = trees.get(1).getAllFileNodes().get(0);
+        file.addModifiedLines(10, 11, 12, 100);
+        file.addIndirectCoverageChange(15, -2);
+        file.addIndirectCoverageChange(16, 3);
+
+        var restored = CompactTransport.of(trees).get();
+
+        assertThat(restored).usingRecursiveComparison().isEqualTo(trees);
+        assertThat(restored.get(1).getAllFileNodes().get(0).getModifiedLines()).containsExactly(10, 11, 12, 100);
+    }
+
+    @Test
+    void shouldBeSmallerThanJavaSerialization() throws IOException {
+        var tree = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        assertThat(CompactTransport.of(tree).size()).isLessThan(serialize(tree).length / 2);
+    }
+
+    @Test
+    void shouldPackIntegerMapsAndSets() {
+        var map = new TreeMap<Integer, Integer>();
+        map.put(-5, 1);
+        map.put(1, 0);
+        map.put(20_000, Integer.MAX_VALUE);
+        map.put(20_001, Integer.MIN_VALUE);
+        var set = new TreeSet<>(List.of(1, 2, 3, 1_000_000));
+        var strings = new TreeSet<>(List.of("a", "b"));
+
+        var values = new ArrayList<Serializable>(List.of(map, set, strings));
+        var restored = CompactTransport.of(values).get();
+
+        assertThat(restored).containsExactly(map, set, strings);
+        assertThat(restored.get(0)).isInstanceOf(TreeMap.class);
+        assertThat(restored.get(1)).isInstanceOf(TreeSet.class);
+    }
+
+    @Test
+    void shouldNotPackSubclassesOfIntegerMapsAndSets() {
+        var map = new SortedIntegerMap();
+        map.put(1, 2);
+        var set = new SortedIntegerSet();
+        set.add(1);
+
+        var values = new ArrayList<Serializable>(List.of(map, set));
+        var restored = CompactTransport.of(values).get();
+
+        assertThat(restored).containsExactly(map, set);
+        assertThat(restored.get(0)).isInstanceOf(SortedIntegerMap.class);
+        assertThat(restored.get(1)).isInstanceOf(SortedIntegerSet.class);
+    }
+
+    @Test
+    void shouldRejectInvalidEnvelopes() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeInt(CompactTransport.MAGIC);
+            output.writeInt(CompactTransport.VERSION + 1);
+        }
+
+        assertThatIOException().isThrownBy(() -> CompactTransport.decode(bytes.toByteArray()))
+                .withMessageContaining("Unsupported version");
+        assertThatIOException().isThrownBy(() -> CompactTransport.decode(new byte[8]))
+                .withMessageContaining("not a coverage transport envelope");
+    }
+
+    private byte[] serialize(final Serializable value) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class SortedIntegerMap extends TreeMap<Integer, Integer> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class SortedIntegerSet extends TreeSet<Integer> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,72 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.FileNode;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LineCountersTest {
+    @Test
+    void shouldCreateCountersOfFile() {
+        var file = new FileNode("File.java", "path/File.java");
+        file.addCounters(20, 1, 1);
+        file.addCounters(10, 1, 0);
+        file.addCounters(15, 0, 2);
+
+        var counters = LineCounters.of(file);
+
+        assertThat(counters.size()).isEqualTo(3);
+        assertThat(counters.isEmpty()).isFalse();
+        assertThat(counters.getLine(0)).isEqualTo(10);
+        assertThat(counters.getLine(2)).isEqualTo(20);
+        assertThat(counters.indexOf(15)).isEqualTo(1);
+        assertThat(counters.contains(11)).isFalse();
+        assertThat(counters.getCovered(10)).isEqualTo(1);
+        assertThat(counters.getMissed(15)).isEqualTo(2);
+        assertThat(counters.getCovered(11)).isZero();
+        assertThat(counters.getMissed(11)).isZero();
+
+        var copy = new FileNode("File.java", "path/File.java");
+        counters.addTo(copy);
+        assertThat(copy.getCounters()).isEqualTo(file.getCounters());
+        assertThat(LineCounters.of(copy)).isEqualTo(counters);
+    }
+
+    @Test
+    void shouldSerializeAndParseCounters() {
+        var counters = LineCounters.of(new int[] {1, 5, 100}, new int[] {1, 0, 3}, new int[] {0, 1, 2});
+
+        assertThat(counters.serialize()).isEqualTo("[1: 1/0, 5: 0/1, 100: 3/2]");
+        assertThat(LineCounters.valueOf(counters.serialize())).isEqualTo(counters);
+        assertThat(LineCounters.valueOf(" [ 1:1/0 ,5 : 0/1,100: 3/2 ] ")).isEqualTo(counters);
+        assertThat(LineCounters.valueOf("[]")).satisfies(empty -> {
+            assertThat(empty.isEmpty()).isTrue();
+            assertThat(empty.serialize()).isEqualTo("[]");
+        });
+    }
+
+    @Test
+    void shouldParseManyLines() {
+        var builder = new StringBuilder("[");
+        for (int line = 1; line <= 1000; line++) {
+            builder.append(line).append(": ").append(line % 2).append('/').append(line % 3).append(", ");
+        }
+        var counters = LineCounters.valueOf(builder.append(']').toString());
+
+        assertThat(counters.size()).isEqualTo(1000);
+        assertThat(counters.getCovered(999)).isEqualTo(1);
+        assertThat(counters.getMissed(999)).isZero();
+    }
+
+    @Test
+    void shouldRejectInvalidCounters() {
+        assertThatIllegalArgumentException().isThrownBy(() -> LineCounters.valueOf("[1: 1]"));
+        assertThatIllegalArgumentException().isThrownBy(() -> LineCounters.valueOf("[1: 1/0] trailing"));
+        assertThatIllegalArgumentException().isThrownBy(() -> LineCounters.valueOf("[99999999999: 1/0]"));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> LineCounters.of(new int[] {2, 1}, new int[] {0, 0}, new int[] {0, 0}));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> LineCounters.of(new int[] {1}, new int[0], new int[0]));
+    }
+}
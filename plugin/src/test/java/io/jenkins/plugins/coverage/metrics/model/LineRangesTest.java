@@ -0,0 +1,77 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import io.jenkins.plugins.coverage.metrics.model.LineRanges.LineRangesBuilder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LineRangesTest {
+    @Test
+    void shouldCreateEmptyRanges() {
+        var ranges = LineRanges.of(List.of());
+
+        assertThat(ranges).isSameAs(LineRanges.empty());
+        assertThat(ranges.isEmpty()).isTrue();
+        assertThat(ranges.size()).isZero();
+        assertThat(ranges.contains(1)).isFalse();
+        assertThat(ranges).hasToString("");
+    }
+
+    @Test
+    void shouldMergeAdjacentAndOverlappingRanges() {
+        var ranges = new LineRangesBuilder()
+                .addRange(10, 20)
+                .addLine(5)
+                .addRange(21, 25)
+                .addRange(15, 22)
+                .addLine(30)
+                .addRange(3, 4)
+                .build();
+
+        assertThat(ranges.getRangeCount()).isEqualTo(3);
+        assertThat(ranges).hasToString("3-5, 10-25, 30");
+        assertThat(ranges.size()).isEqualTo(3 + 16 + 1);
+        assertThat(ranges.lines().limit(4)).containsExactly(3, 4, 5, 10);
+        assertThat(ranges.getStart(1)).isEqualTo(10);
+        assertThat(ranges.getEnd(1)).isEqualTo(25);
+    }
+
+    @Test
+    void shouldCheckContainment() {
+        var ranges = LineRanges.of(List.of(1, 2, 3, 7, 10, 11));
+
+        assertThat(ranges).hasToString("1-3, 7, 10-11");
+        assertThat(ranges.contains(0)).isFalse();
+        assertThat(ranges.contains(2)).isTrue();
+        assertThat(ranges.contains(4)).isFalse();
+        assertThat(ranges.contains(7)).isTrue();
+        assertThat(ranges.contains(11)).isTrue();
+        assertThat(ranges.contains(12)).isFalse();
+
+        assertThat(ranges.containsAll(1, 3)).isTrue();
+        assertThat(ranges.containsAll(2, 2)).isTrue();
+        assertThat(ranges.containsAll(3, 4)).isFalse();
+        assertThat(ranges.containsAll(5, 6)).isFalse();
+        assertThat(ranges.containsAll(6, 5)).isTrue();
+    }
+
+    @Test
+    void shouldParseRangesAndPlainLists() {
+        assertThat(LineRanges.valueOf("[1-3, 7, 10-11]")).isEqualTo(LineRanges.of(List.of(1, 2, 3, 7, 10, 11)));
+        assertThat(LineRanges.valueOf("[1, 2, 3, 7]")).hasToString("1-3, 7");
+        assertThat(LineRanges.valueOf("[]")).isEqualTo(LineRanges.empty());
+        assertThat(LineRanges.valueOf("")).isEqualTo(LineRanges.empty());
+    }
+
+    @Test
+    void shouldScaleWithNumberOfRanges() {
+        var ranges = new LineRangesBuilder().addRange(1, 100_000).addRange(200_000, 300_000).build();
+
+        assertThat(ranges.getRangeCount()).isEqualTo(2);
+        assertThat(ranges.size()).isEqualTo(200_001);
+        assertThat(ranges).hasToString("1-100000, 200000-300000");
+    }
+}
@@ -0,0 +1,66 @@
+package io.jenkins.plugins.coverage.metrics.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.jenkins.plugins.coverage.metrics.model.PhaseTimings.Phase;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PhaseTimingsTest {
+    @Test
+    void shouldRecordPhasesInOrderOfCompletion() {
+        var timings = new PhaseTimings();
+
+        assertThat(timings.isEmpty()).isTrue();
+
+        try (var ignored = timings.start("first")) {
+            allocate();
+        }
+        try (var ignored = timings.start("second")) {
+            assertThat(timings.getPhases()).extracting(Phase::getName).containsExactly("first");
+        }
+
+        assertThat(timings.isEmpty()).isFalse();
+        assertThat(timings.getPhases()).extracting(Phase::getName).containsExactly("first", "second");
+        assertThat(timings.getPhases()).allSatisfy(phase -> {
+            assertThat(phase.getWallTimeMillis()).isNotNegative();
+            assertThat(phase.getCpuTimeMillis()).isGreaterThanOrEqualTo(-1);
+            assertThat(phase.getAllocatedBytes()).isGreaterThanOrEqualTo(-1);
+        });
+    }
+
+    @Test
+    void shouldFormatPhase() {
+        assertThat(new Phase("Parsing", 1200, 1000, 4096))
+                .hasToString("Parsing: wall time 1200 ms, CPU time 1000 ms, allocated 4 KB");
+        assertThat(new Phase("Parsing", 1200, -1, -1))
+                .hasToString("Parsing: wall time 1200 ms, CPU time n/a, allocated n/a");
+    }
+
+    @Test
+    void shouldSumWallTimeOfAllPhases() {
+        var timings = new PhaseTimings();
+        assertThat(timings.getWallTimeMillis()).isZero();
+
+        try (var ignored = timings.start("Parsing")) {
+            allocate();
+        }
+        try (var ignored = timings.start("Persisting")) {
+            allocate();
+        }
+
+        assertThat(timings.getWallTimeMillis()).isEqualTo(
+                timings.getPhases().stream().mapToLong(Phase::getWallTimeMillis).sum());
+    }
+
+    private void allocate() {
+        List<int[]> arrays = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            arrays.add(new int[1024]);
+        }
+        assertThat(arrays).hasSize(100);
+    }
+}
@@ -51,6 +51,10 @@ class CoverageApiITest extends AbstractCoverageITest {
                 .node("modifiedFilesStatistics").isEqualTo("{}");
         assertThatJson(remoteApiResult)
                 .node("modifiedLinesStatistics").isEqualTo("{}");
+        assertThatJson(remoteApiResult)
+                .inPath("$.phaseTimings[*].name").isArray()
+                .containsExactly("Scanning and parsing", "Aggregating results", "Resolving source paths",
+                        "Evaluating quality gates", "Painting source files", "Persisting results");
     }
 
     @Test
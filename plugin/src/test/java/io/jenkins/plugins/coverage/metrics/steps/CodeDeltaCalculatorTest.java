@@ -127,6 +127,31 @@ class CodeDeltaCalculatorTest {
                 .hasMessage(AMBIGUOUS_PATHS_ERROR);
     }
 
+    @Test
+    void shouldMapManyScmChangesToReportPathsWithLongestSuffix() throws IllegalStateException {
+        var codeDeltaCalculator = createCodeDeltaCalculator();
+        var log = createFilteredLog();
+
+        Set<String> reportPaths = new HashSet<>();
+        Set<FileChanges> changes = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            var reportPath = Path.of("edu", "hm", "p" + i % 100, "File" + i + ".java").toString();
+            reportPaths.add(reportPath);
+            reportPaths.add(Path.of("p" + i % 100, "File" + i + ".java").toString());
+            if (i % 10 == 0) {
+                changes.add(createFileChanges(Path.of("module", "src", "main", "java").resolve(reportPath).toString(),
+                        EMPTY_PATH, FileEditType.MODIFY));
+            }
+        }
+        Node tree = mock(Node.class);
+        when(tree.getFiles()).thenReturn(reportPaths);
+
+        var mapping = codeDeltaCalculator.mapScmChangesToReportPaths(changes, tree, log);
+
+        assertThat(mapping).hasSize(2000);
+        assertThat(mapping.keySet()).allSatisfy(path -> assertThat(path).startsWith(Path.of("edu", "hm").toString()));
+    }
+
     @Test
     void shouldCreateOldPathMapping() throws IllegalStateException {
         var codeDeltaCalculator = createCodeDeltaCalculator();
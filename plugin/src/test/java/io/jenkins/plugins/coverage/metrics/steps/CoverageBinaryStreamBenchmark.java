@@ -0,0 +1,140 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.apache.commons.io.file.PathUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.coverage.ContainerNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+
+/**
+ * Compares the load time and the file size of the {@link CoverageXmlStream XML format} and the
+ * {@link CoverageBinaryStream binary format} of the coverage tree. The sizes of the files are reported as auxiliary
+ * counters {@code xmlBytes} and {@code binaryBytes}. Run the {@link #main(String[])} method from the IDE or with the
+ * test classpath to execute the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoverageBinaryStreamBenchmark extends AbstractCoverageTest {
+    @Param({"1", "16", "128"})
+    private int modules;
+
+    private Path folder;
+    private Path xml;
+    private Path binary;
+
+    /**
+     * Writes a coverage tree with the configured number of modules in both formats.
+     *
+     * @throws IOException
+     *         if the files could not be written
+     */
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        var tree = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var container = new ContainerNode("Container");
+        for (int i = 0; i < modules; i++) {
+            container.addChild(tree.copyTree());
+        }
+
+        folder = Files.createTempDirectory("coverage-benchmark");
+        xml = folder.resolve("coverage.xml");
+        new CoverageXmlStream().write(xml, container);
+        binary = folder.resolve("coverage.cov");
+        new CoverageBinaryStream().write(binary, container);
+    }
+
+    /**
+     * Removes the written files.
+     *
+     * @throws IOException
+     *         if the files could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        PathUtils.deleteDirectory(folder);
+    }
+
+    /**
+     * Loads the tree from the XML file.
+     *
+     * @param sizes
+     *         the file sizes
+     *
+     * @return the loaded tree
+     * @throws IOException
+     *         if the size of the file cannot be determined
+     */
+    @Benchmark
+    public Node readXml(final FileSizes sizes) throws IOException {
+        sizes.xmlBytes = Files.size(xml);
+        return new CoverageXmlStream().read(xml);
+    }
+
+    /**
+     * Loads the tree from the binary file.
+     *
+     * @param sizes
+     *         the file sizes
+     *
+     * @return the loaded tree
+     * @throws IOException
+     *         if the size of the file cannot be determined
+     */
+    @Benchmark
+    public Node readBinary(final FileSizes sizes) throws IOException {
+        sizes.binaryBytes = Files.size(binary);
+        return new CoverageBinaryStream().read(binary);
+    }
+
+    /**
+     * Reports the sizes of the files as auxiliary counters.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileSizes {
+        /** The size of the XML file in bytes. */
+        public long xmlBytes;
+        /** The size of the binary file in bytes. */
+        public long binaryBytes;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CoverageBinaryStreamBenchmark.class.getSimpleName()).build()).run();
+    }
+}
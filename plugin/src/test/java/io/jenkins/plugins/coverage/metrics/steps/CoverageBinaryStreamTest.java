@@ -0,0 +1,186 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.ContainerNode;
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.parser.PitestParser;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageBinaryStream.BlockIndex;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageBinaryStreamTest extends AbstractCoverageTest {
+    @Test
+    void shouldSaveAndRestoreTree(@TempDir final Path folder) {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        var restored = writeAndRead(folder, root);
+
+        assertThat(restored).usingRecursiveComparison().isEqualTo(root);
+        assertThat(restored.aggregateValues()).isEqualTo(root.aggregateValues());
+    }
+
+    @Test
+    void shouldSaveAndRestoreContainerWithSeveralModules(@TempDir final Path folder) {
+        var container = new ContainerNode("Container");
+        container.addChild(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+        container.addChild(readJacocoResult(JACOCO_CODING_STYLE_FILE));
+
+        var restored = writeAndRead(folder, container);
+
+        assertThat(restored).usingRecursiveComparison().isEqualTo(container);
+        assertThat(restored.getAll(Metric.FILE)).hasSameSizeAs(container.getAll(Metric.FILE));
+    }
+
+    @Test
+    void shouldSaveAndRestoreMutations(@TempDir final Path folder) {
+        var root = readResult("mutations.xml", new PitestParser());
+
+        var restored = writeAndRead(folder, root);
+
+        assertThat(restored.getAllFileNodes()).flatExtracting(FileNode::getMutations).isNotEmpty();
+        assertThat(restored).usingRecursiveComparison().isEqualTo(root);
+    }
+
+    @Test
+    void shouldCreateIndexWithBlockForEachPackage(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        var file = folder.resolve("coverage.cov");
+        new CoverageBinaryStream().write(file, root);
+
+        try (var channel = FileChannel.open(file)) {
+            var index = BlockIndex.read(channel);
+
+            assertThat(index.size()).isEqualTo(root.getAll(Metric.PACKAGE).size() + 1);
+            assertThat(index.getMetric(0)).isEqualTo(Metric.MODULE);
+            assertThat(index.getName(0)).isEqualTo(root.getName());
+            assertThat(index.getParent(0)).isEqualTo(-1);
+            for (int block = 1; block < index.size(); block++) {
+                assertThat(index.getMetric(block)).isEqualTo(Metric.PACKAGE);
+                assertThat(index.getParent(block)).isZero();
+                assertThat(index.getLength(block)).isPositive();
+            }
+        }
+    }
+
+    @Test
+    void shouldReadSingleFile(@TempDir final Path folder) {
+        var container = createContainer();
+        var file = folder.resolve("coverage.cov");
+        new CoverageBinaryStream().write(file, container);
+
+        var expected = container.getAllFileNodes().get(5);
+        var hash = expected.getRelativePath().hashCode();
+        assertThat(new CoverageBinaryStream().readFile(file, hash)).hasValueSatisfying(actual -> {
+            assertThat(actual.getRelativePath()).isEqualTo(expected.getRelativePath());
+            assertThat(actual.getCounters()).isEqualTo(expected.getCounters());
+            assertThat(actual.aggregateValues()).isEqualTo(expected.aggregateValues());
+        });
+
+        assertThat(new CoverageBinaryStream().readFile(file, "does/not/exist.java".hashCode())).isEmpty();
+    }
+
+    @Test
+    void shouldReadBlocksWithModifiedFilesOnly(@TempDir final Path folder) {
+        var container = createContainer();
+        var modified = container.getAllFileNodes().get(3);
+        modified.addModifiedLines(modified.getLinesWithCoverage().iterator().next());
+        var file = folder.resolve("coverage.cov");
+        new CoverageBinaryStream().write(file, container);
+
+        var tree = new CoverageBinaryStream().readModifiedFiles(file);
+
+        assertThat(tree.getAll(Metric.MODULE)).hasSize(2);
+        assertThat(tree.getAll(Metric.PACKAGE)).hasSize(1);
+        assertThat(tree.filterByModifiedLines().getAllFileNodes()).singleElement()
+                .satisfies(actual -> assertThat(actual.getRelativePath()).isEqualTo(modified.getRelativePath()));
+    }
+
+    @Test
+    void shouldBeSmallerThanXml(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        var xml = folder.resolve("coverage.xml");
+        new CoverageXmlStream().write(xml, root);
+        var binary = folder.resolve("coverage.cov");
+        new CoverageBinaryStream().write(binary, root);
+
+        assertThat(Files.size(binary)).isLessThan(Files.size(xml) / 4);
+    }
+
+    @Test
+    void shouldReturnDefaultValueForBrokenFiles(@TempDir final Path folder) throws IOException {
+        var file = folder.resolve("coverage.cov");
+        Files.writeString(file, "<module/>");
+
+        assertThat(new CoverageBinaryStream().read(file)).satisfies(node -> {
+            assertThat(node.getName()).isEqualTo("Empty");
+            assertThat(node.getChildren()).isEmpty();
+        });
+    }
+
+    @Test
+    void shouldRejectFilesOfOtherVersions(@TempDir final Path folder) throws IOException {
+        var file = folder.resolve("coverage.cov");
+        try (var output = new DataOutputStream(Files.newOutputStream(file))) {
+            output.writeInt(CoverageBinaryStream.MAGIC);
+            output.writeInt(CoverageBinaryStream.VERSION - 1);
+            output.writeLong(0);
+        }
+
+        assertThat(new CoverageBinaryStream().read(file).getName()).isEqualTo("Empty");
+    }
+
+    @Test
+    void shouldReplaceFileWithoutLeavingTemporaryFiles(@TempDir final Path folder) throws IOException {
+        var file = folder.resolve("coverage.cov");
+        var stream = new CoverageBinaryStream();
+        stream.write(file, readJacocoResult(JACOCO_CODING_STYLE_FILE));
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        stream.write(file, root);
+
+        try (var files = Files.list(folder)) {
+            assertThat(files).containsExactly(file);
+        }
+        assertThat(stream.read(file)).usingRecursiveComparison().isEqualTo(root);
+    }
+
+    @Test
+    void shouldSelectStreamAndFileNameByFormat() {
+        assertThat(ResultFormat.XML.getFileName("coverage")).isEqualTo("coverage.xml");
+        assertThat(ResultFormat.XML.createStream()).isInstanceOf(CoverageXmlStream.class);
+        assertThat(ResultFormat.XML_GZIP.getFileName("coverage")).isEqualTo("coverage.xml.gz");
+        assertThat(ResultFormat.XML_GZIP.createStream()).isInstanceOf(CoverageXmlStream.class);
+        assertThat(ResultFormat.XML.getAlternative()).isEqualTo(ResultFormat.XML_GZIP);
+        assertThat(ResultFormat.XML_GZIP.getAlternative()).isEqualTo(ResultFormat.XML);
+        assertThat(ResultFormat.BINARY.getFileName("coverage")).isEqualTo("coverage.cov");
+        assertThat(ResultFormat.BINARY.createStream()).isInstanceOf(CoverageBinaryStream.class);
+        assertThat(ResultFormat.getDefault()).isEqualTo(ResultFormat.XML_GZIP);
+    }
+
+    private ContainerNode createContainer() {
+        var container = new ContainerNode("Container");
+        container.addChild(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+        container.addChild(readJacocoResult(JACOCO_CODING_STYLE_FILE));
+        return container;
+    }
+
+    private Node writeAndRead(final Path folder, final Node root) {
+        var file = folder.resolve("coverage.cov");
+        var stream = new CoverageBinaryStream();
+        stream.write(file, root);
+        return stream.read(file);
+    }
+}
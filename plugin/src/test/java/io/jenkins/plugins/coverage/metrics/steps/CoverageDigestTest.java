@@ -0,0 +1,47 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageDigestTest extends AbstractCoverageTest {
+    @Test
+    void shouldCreateSameDigestForSameCoverage() {
+        var digest = CoverageDigest.of(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+
+        assertThat(digest).hasSize(64)
+                .isEqualTo(CoverageDigest.of(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE)))
+                .isNotEqualTo(CoverageDigest.of(readJacocoResult(JACOCO_CODING_STYLE_FILE)));
+    }
+
+    @Test
+    void shouldDetectChangedLineCoverage() {
+        var tree = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var digest = CoverageDigest.of(tree);
+
+        var file = tree.getAllFileNodes().get(0);
+        int line = file.getLinesWithCoverage().iterator().next();
+        file.addCounters(line, file.getCoveredOfLine(line) + 1, file.getMissedOfLine(line));
+
+        assertThat(CoverageDigest.of(tree)).isNotEqualTo(digest);
+    }
+
+    @Test
+    void shouldComputeSameDigestWhileWritingTheLineData(@TempDir final Path folder) throws IOException {
+        var tree = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        var lineDataDigest = new CoverageDigest();
+        LineDataStore.write(folder.resolve("lines.cov"), tree, lineDataDigest);
+        assertThat(lineDataDigest.getValue(tree.aggregateValues())).isEqualTo(CoverageDigest.of(tree));
+
+        var binaryDigest = new CoverageDigest();
+        new CoverageBinaryStream().write(folder.resolve("tree.cov"), tree, binaryDigest);
+        assertThat(binaryDigest.getValue(tree.aggregateValues())).isEqualTo(CoverageDigest.of(tree));
+    }
+}
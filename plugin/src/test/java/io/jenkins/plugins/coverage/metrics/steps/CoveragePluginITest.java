@@ -10,8 +10,14 @@ import org.junitpioneer.jupiter.Issue;
 import edu.hm.hafner.coverage.Coverage;
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.coverage.Value;
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.util.FilteredLog;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 
 import hudson.model.Result;
@@ -241,6 +247,27 @@ class CoveragePluginITest extends AbstractCoverageITest {
                         .build());
     }
 
+    @Test
+    void shouldMergeManyModulesWithSameNameInPipeline() throws IOException {
+        var job = createPipeline();
+        List<Node> modules = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            copyFileToWorkspace(job, JACOCO_ANALYSIS_MODEL_FILE, "module-" + i + "/jacoco.xml");
+            try (var reader = Files.newBufferedReader(getResourceAsFile(JACOCO_ANALYSIS_MODEL_FILE))) {
+                modules.add(new JacocoParser().parse(reader, JACOCO_ANALYSIS_MODEL_FILE, new FilteredLog("Errors")));
+            }
+        }
+        setPipelineScript(job, "recordCoverage tools: [[parser: 'JACOCO', pattern: '**/jacoco.xml']]");
+
+        Run<?, ?> build = buildSuccessfully(job);
+
+        assertThat(getConsoleLog(build)).contains("Merging 40 coverage trees of JaCoCo Coverage Reports");
+        var expected = Node.merge(modules).getValue(Metric.LINE);
+        assertThat(expected).isPresent();
+        assertThat(build.getAction(CoverageBuildAction.class).getAllValues(Baseline.PROJECT))
+                .contains(expected.get());
+    }
+
     @Test
     void shouldRecordOneCoberturaResultInFreestyleJob() {
         var project = createFreestyleJob(Parser.COBERTURA, COBERTURA_HIGHER_COVERAGE_FILE);
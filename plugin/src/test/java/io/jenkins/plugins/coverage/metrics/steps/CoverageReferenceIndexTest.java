@@ -0,0 +1,124 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.ContainerNode;
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.Metric;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageReferenceIndex.IndexXmlStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageReferenceIndexTest extends AbstractCoverageTest {
+    @Test
+    void shouldCreateTreeWithLineCountersAndValuesOfFiles(@TempDir final Path folder) {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        var file = folder.resolve("index.xml");
+        var stream = new IndexXmlStream();
+        stream.write(file, CoverageReferenceIndex.of(root));
+        var index = stream.read(file);
+
+        assertThat(index.size()).isEqualTo(root.getAllFileNodes().size());
+
+        var tree = index.toTree();
+        assertThat(tree.getName()).isEqualTo(root.getName());
+        assertThat(tree.getFiles()).containsExactlyInAnyOrderElementsOf(root.getFiles());
+        assertThat(tree.getAll(Metric.PACKAGE)).hasSameSizeAs(root.getAll(Metric.PACKAGE));
+        assertThat(tree.getValue(Metric.LINE)).isEqualTo(root.getValue(Metric.LINE));
+        assertThat(tree.getValue(Metric.BRANCH)).isEqualTo(root.getValue(Metric.BRANCH));
+
+        for (FileNode expected : root.getAllFileNodes()) {
+            assertThat(tree.getAllFileNodes()).filteredOn(FileNode::getRelativePath, expected.getRelativePath())
+                    .singleElement().satisfies(actual -> {
+                        assertThat(actual.getName()).isEqualTo(expected.getName());
+                        assertThat(actual.getCounters()).isEqualTo(expected.getCounters());
+                        assertThat(actual.getLinesWithCoverage()).isEqualTo(expected.getLinesWithCoverage());
+                        assertThat(actual.getValue(Metric.LINE)).isEqualTo(expected.getValue(Metric.LINE));
+                    });
+        }
+    }
+
+    @Test
+    void shouldKeepFilesAndOverallDeltaOfMultiModuleReports(@TempDir final Path folder) {
+        var root = new ContainerNode("Container");
+        root.addChild(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+        root.addChild(readJacocoResult(JACOCO_CODING_STYLE_FILE));
+        var current = readJacocoResult(JACOCO_CODING_STYLE_FILE);
+
+        var file = folder.resolve("index.xml");
+        var stream = new IndexXmlStream();
+        stream.write(file, CoverageReferenceIndex.of(root));
+        var tree = stream.read(file).toTree();
+
+        assertThat(tree.getAllFileNodes()).hasSameSizeAs(root.getAllFileNodes());
+        for (FileNode expected : root.getAllFileNodes()) {
+            assertThat(tree.findByHashCode(Metric.FILE, expected.getRelativePath().hashCode()))
+                    .hasValueSatisfying(actual -> assertThat(((FileNode) actual).getCounters())
+                            .isEqualTo(expected.getCounters()));
+        }
+
+        assertThat(CoverageReporter.computeDelta(current.aggregateValues(), root.aggregateValues()))
+                .isEqualTo(current.computeDelta(root));
+        assertThat(CoverageReporter.computeDelta(root.aggregateValues(), current.aggregateValues()))
+                .isEqualTo(root.computeDelta(current));
+    }
+
+    @Test
+    void shouldWriteLineCountersInPackedFormat(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var expected = root.getAllFileNodes().get(0);
+
+        var file = folder.resolve("index.xml");
+        new IndexXmlStream().write(file, CoverageReferenceIndex.of(root));
+
+        assertThat(Files.readString(file))
+                .contains("<counters>" + LineCounters.of(expected).serialize() + "</counters>")
+                .doesNotContain("coveredPerLine", "missedPerLine");
+    }
+
+    @Test
+    void shouldReadIndexWithBoxedLineCounters(@TempDir final Path folder) throws IOException {
+        var file = folder.resolve("index.xml");
+        Files.writeString(file, """
+                <?xml version='1.1' encoding='UTF-8'?>
+                <referenceIndex>
+                  <name>module</name>
+                  <files>
+                    <file>
+                      <packageName>edu.hm.hafner</packageName>
+                      <fileName>File.java</fileName>
+                      <relativePath>edu/hm/hafner/File.java</relativePath>
+                      <coveredPerLine>[10: 1, 11: 0]</coveredPerLine>
+                      <missedPerLine>[10: 1, 11: 2]</missedPerLine>
+                      <values/>
+                    </file>
+                  </files>
+                </referenceIndex>
+                """);
+
+        var tree = new IndexXmlStream().read(file).toTree();
+
+        assertThat(tree.getAllFileNodes()).singleElement().satisfies(fileNode -> {
+            assertThat(fileNode.getRelativePath()).isEqualTo("edu/hm/hafner/File.java");
+            assertThat(fileNode.getCoveredOfLine(10)).isEqualTo(1);
+            assertThat(fileNode.getMissedOfLine(10)).isEqualTo(1);
+            assertThat(fileNode.getCoveredOfLine(11)).isZero();
+            assertThat(fileNode.getMissedOfLine(11)).isEqualTo(2);
+        });
+
+        var rewritten = folder.resolve("rewritten.xml");
+        new IndexXmlStream().write(rewritten, new IndexXmlStream().read(file));
+        assertThat(Files.readString(rewritten)).contains("<counters>[10: 1/1, 11: 0/2]</counters>");
+        assertThat(new IndexXmlStream().read(rewritten).toTree())
+                .usingRecursiveComparison().isEqualTo(tree);
+    }
+}
@@ -4,10 +4,13 @@ import org.junit.jupiter.api.Test;
 
 import edu.hm.hafner.util.FilteredLog;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import hudson.model.Run;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMRevisionAction;
 
 import io.jenkins.plugins.forensics.reference.ReferenceFinder;
 
@@ -107,6 +110,33 @@ class CoverageReporterTest {
         assertThat(action).isEmpty();
     }
 
+    @Test
+    void shouldDetectSameRevision() {
+        var revision = mock(SCMRevision.class);
+        var otherRevision = mock(SCMRevision.class);
+
+        assertThat(CoverageReporter.hasSameRevision(createBuildWithRevisions(revision),
+                createBuildWithRevisions(revision))).isTrue();
+        assertThat(CoverageReporter.hasSameRevision(createBuildWithRevisions(revision),
+                createBuildWithRevisions(otherRevision))).isFalse();
+        assertThat(CoverageReporter.hasSameRevision(createBuildWithRevisions(revision),
+                createBuildWithRevisions())).isFalse();
+        assertThat(CoverageReporter.hasSameRevision(createBuildWithRevisions(),
+                createBuildWithRevisions())).isFalse();
+    }
+
+    private Run<?, ?> createBuildWithRevisions(final SCMRevision... revisions) {
+        Run<?, ?> build = mock(Run.class);
+        List<SCMRevisionAction> actions = new ArrayList<>();
+        for (SCMRevision revision : revisions) {
+            var action = mock(SCMRevisionAction.class);
+            when(action.getRevision()).thenReturn(revision);
+            actions.add(action);
+        }
+        when(build.getActions(SCMRevisionAction.class)).thenReturn(actions);
+        return build;
+    }
+
     private Run<?, ?> createBuildWithAction(final String id) {
         Run<?, ?> build = mock(Run.class);
 
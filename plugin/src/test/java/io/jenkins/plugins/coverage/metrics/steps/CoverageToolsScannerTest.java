@@ -0,0 +1,185 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.Parser;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageToolsScanner.ToolScan;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageToolsScannerTest extends AbstractCoverageTest {
+    private static final int MANY_MODULES = 40; // above the threshold of the parallel merge
+
+    @TempDir
+    private Path workspace;
+
+    @Test
+    void shouldScanAllToolsInOnePass() throws IOException, InterruptedException {
+        copy(JACOCO_ANALYSIS_MODEL_FILE, "analysis-model/target/site/jacoco/jacoco.xml");
+        copy(JACOCO_CODING_STYLE_FILE, "codingstyle/target/site/jacoco/jacoco.xml");
+        copy("nunit.xml", "tests/nunit.xml");
+
+        var scanner = new CoverageToolsScanner(List.of(
+                new ToolScan(Parser.JACOCO, Parser.JACOCO.getDefaultPattern()),
+                new ToolScan(Parser.NUNIT, "tests/"),
+                new ToolScan(Parser.PIT, Parser.PIT.getDefaultPattern())),
+                "UTF-8", true, ProcessingMode.FAIL_FAST, 1, false);
+
+        var results = scanner.invoke(workspace.toFile(), null);
+
+        assertThat(results).hasSize(3);
+
+        var jacoco = results.get(0);
+        assertThat(jacoco.hasErrors()).isFalse();
+        assertThat(jacoco.getLog().getInfoMessages()).contains("-> found 2 files");
+        assertThat(jacoco.getLog().getInfoMessages()).contains("Merging 2 coverage trees of JaCoCo Coverage Reports");
+        assertThat(jacoco.getResults()).hasSize(1)
+                .allSatisfy(node -> assertThat(node.getValue(Metric.LINE)).isPresent());
+
+        var nunit = results.get(1);
+        assertThat(nunit.hasErrors()).isFalse();
+        assertThat(nunit.getLog().getInfoMessages()).contains("-> found 1 file");
+        assertThat(nunit.getResults()).hasSize(1);
+
+        var pit = results.get(2);
+        assertThat(pit.hasErrors()).isTrue();
+        assertThat(pit.getLog().getErrorMessages())
+                .contains("No files found for pattern '**/mutations.xml'. Configuration error?");
+        assertThat(pit.getResults()).isEmpty();
+    }
+
+    @Test
+    void shouldParseFilesInParallelWithDeterministicLog() throws IOException, InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            copy(i % 2 == 0 ? JACOCO_ANALYSIS_MODEL_FILE : JACOCO_CODING_STYLE_FILE,
+                    "module-%d/jacoco.xml".formatted(i));
+        }
+        List<ToolScan> scans = List.of(new ToolScan(Parser.JACOCO, Parser.JACOCO.getDefaultPattern()));
+
+        var sequential = new CoverageToolsScanner(scans, "UTF-8", true, ProcessingMode.FAIL_FAST, 1, false)
+                .invoke(workspace.toFile(), null).get(0);
+        var parallel = new CoverageToolsScanner(scans, "UTF-8", true, ProcessingMode.FAIL_FAST, 4, false)
+                .invoke(workspace.toFile(), null).get(0);
+
+        assertThat(parallel.hasErrors()).isFalse();
+        assertThat(parallel.getResults()).hasSize(1);
+        assertThat(parallel.getLog().getInfoMessages())
+                .containsExactlyElementsOf(sequential.getLog().getInfoMessages());
+        assertThat(parallel.getResults()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(sequential.getResults());
+    }
+
+    @Test
+    void shouldReuseCachedReports() throws IOException, InterruptedException {
+        copy(JACOCO_CODING_STYLE_FILE, "first/jacoco.xml");
+        copy(JACOCO_CODING_STYLE_FILE, "second/jacoco.xml");
+        List<ToolScan> scans = List.of(new ToolScan(Parser.JACOCO, Parser.JACOCO.getDefaultPattern()));
+
+        var result = new CoverageToolsScanner(scans, "UTF-8", true, ProcessingMode.FAIL_FAST, 1, true)
+                .invoke(workspace.toFile(), null).get(0);
+
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getLog().getInfoMessages()).anySatisfy(
+                message -> assertThat(message).startsWith("Reusing cached result for file"));
+        assertThat(result.getResults()).hasSize(1);
+    }
+
+    @Test
+    void shouldParseCompressedReports() throws IOException, InterruptedException {
+        var gzip = workspace.resolve("gzip/jacoco.xml.gz");
+        Files.createDirectories(gzip.getParent());
+        try (var output = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            Files.copy(getResourceAsFile(JACOCO_CODING_STYLE_FILE), output);
+        }
+        var zip = workspace.resolve("zip/reports.zip");
+        Files.createDirectories(zip.getParent());
+        try (var output = new ZipOutputStream(Files.newOutputStream(zip))) {
+            output.putNextEntry(new ZipEntry("analysis-model/jacoco.xml"));
+            Files.copy(getResourceAsFile(JACOCO_ANALYSIS_MODEL_FILE), output);
+            output.closeEntry();
+            output.putNextEntry(new ZipEntry("folder/"));
+            output.closeEntry();
+            output.putNextEntry(new ZipEntry("codingstyle/jacoco.xml"));
+            Files.copy(getResourceAsFile(JACOCO_CODING_STYLE_FILE), output);
+            output.closeEntry();
+        }
+
+        List<ToolScan> scans = List.of(new ToolScan(Parser.JACOCO, "**/*.xml.gz, **/*.zip"));
+        var result = new CoverageToolsScanner(scans, "UTF-8", true, ProcessingMode.FAIL_FAST, 1, false)
+                .invoke(workspace.toFile(), null).get(0);
+
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getLog().getInfoMessages())
+                .contains("-> found 2 files", "Merging 3 coverage trees of JaCoCo Coverage Reports")
+                .anySatisfy(message -> assertThat(message).endsWith("reports.zip!analysis-model/jacoco.xml'"))
+                .anySatisfy(message -> assertThat(message).endsWith("reports.zip!codingstyle/jacoco.xml'"))
+                .anySatisfy(message -> assertThat(message).endsWith("jacoco.xml.gz'"));
+        assertThat(result.getResults()).hasSize(1);
+    }
+
+    @Test
+    void shouldMergeManyModulesWithSameNameInParallel() throws IOException, InterruptedException {
+        List<Node> expected = new ArrayList<>();
+        for (int i = 0; i < MANY_MODULES; i++) {
+            copy(JACOCO_ANALYSIS_MODEL_FILE, "module-" + i + "/target/site/jacoco/jacoco.xml");
+            expected.add(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+        }
+
+        var scans = List.of(new ToolScan(Parser.JACOCO, Parser.JACOCO.getDefaultPattern()));
+        var result = new CoverageToolsScanner(scans, "UTF-8", true, ProcessingMode.FAIL_FAST, 4, false)
+                .invoke(workspace.toFile(), null).get(0);
+
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getLog().getInfoMessages())
+                .contains("Merging " + MANY_MODULES + " coverage trees of JaCoCo Coverage Reports");
+        assertThat(result.getResults()).singleElement().satisfies(merged -> {
+            var sequential = Node.merge(expected);
+            assertThat(merged.aggregateValues()).isEqualTo(sequential.aggregateValues());
+            assertThat(merged.getAllFileNodes()).hasSameSizeAs(sequential.getAllFileNodes());
+        });
+    }
+
+    @Test
+    void shouldBoundTotalNumberOfParsingThreads() {
+        for (int tools = 1; tools <= 5; tools++) {
+            for (int parsingThreads = 1; parsingThreads <= 16; parsingThreads++) {
+                var toolThreads = CoverageToolsScanner.getToolThreads(tools, parsingThreads);
+                var threadsPerTool = CoverageToolsScanner.getThreadsPerTool(toolThreads, parsingThreads);
+
+                assertThat(toolThreads).isBetween(1, tools);
+                assertThat(threadsPerTool).isPositive();
+                assertThat(toolThreads * threadsPerTool).isLessThanOrEqualTo(parsingThreads);
+            }
+        }
+        assertThat(CoverageToolsScanner.getToolThreads(4, 1)).isOne();
+        assertThat(CoverageToolsScanner.getThreadsPerTool(1, 1)).isOne();
+    }
+
+    @Test
+    void shouldNormalizePatterns() {
+        assertThat(CoverageToolsScanner.normalizePatterns("**/jacoco.xml, target/,,"))
+                .containsExactly("**" + File.separator + "jacoco.xml", "target" + File.separator + "**");
+    }
+
+    private void copy(final String resource, final String target) throws IOException {
+        var file = workspace.resolve(target);
+        Files.createDirectories(file.getParent());
+        Files.copy(getResourceAsFile(resource), file);
+    }
+}
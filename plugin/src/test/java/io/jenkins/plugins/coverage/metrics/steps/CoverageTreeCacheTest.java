@@ -0,0 +1,211 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import static io.jenkins.plugins.coverage.metrics.steps.CoverageTreeCache.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CoverageTreeCacheTest {
+    private static final String RESULT = "coverage.xml";
+
+    @Test
+    void shouldLoadTreeOnlyOnce() {
+        var cache = new CoverageTreeCache(Long.MAX_VALUE);
+        var build = createBuild(createJob("job", 1), 1);
+        var loads = new AtomicInteger();
+
+        var first = cache.get(build, RESULT, () -> createTree(loads));
+        var second = cache.get(build, RESULT, () -> createTree(loads));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStatistics()).satisfies(statistics -> {
+            assertThat(statistics.getEntries()).isEqualTo(1);
+            assertThat(statistics.getHits()).isEqualTo(1);
+            assertThat(statistics.getMisses()).isEqualTo(1);
+            assertThat(statistics.getLoads()).isEqualTo(1);
+            assertThat(statistics.getEvictions()).isZero();
+            assertThat(statistics.getEstimatedBytes()).isEqualTo(estimateSize(first));
+        });
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedTreesButKeepLastCompletedBuild() {
+        var loads = new AtomicInteger();
+        var treeSize = estimateSize(createTree(loads));
+        var cache = new CoverageTreeCache(2 * treeSize);
+
+        var job = createJob("job", 3);
+        var latest = createBuild(job, 3);
+        cache.get(latest, RESULT, () -> createTree(loads));
+        cache.get(createBuild(job, 1), RESULT, () -> createTree(loads));
+        cache.get(createBuild(job, 2), RESULT, () -> createTree(loads));
+
+        assertThat(cache.getStatistics()).satisfies(statistics -> {
+            assertThat(statistics.getEntries()).isEqualTo(2);
+            assertThat(statistics.getPinnedEntries()).isEqualTo(1);
+            assertThat(statistics.getEvictions()).isEqualTo(1);
+            assertThat(statistics.getEstimatedBytes()).isEqualTo(2 * treeSize);
+        });
+
+        loads.set(0);
+        cache.get(latest, RESULT, () -> createTree(loads));
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void shouldKeepPinnedTreesEvenIfCacheIsTooSmall() {
+        var cache = new CoverageTreeCache(0);
+        var loads = new AtomicInteger();
+
+        cache.get(createBuild(createJob("first", 1), 1), RESULT, () -> createTree(loads));
+        cache.get(createBuild(createJob("second", 1), 1), RESULT, () -> createTree(loads));
+
+        assertThat(cache.getStatistics().getEntries()).isEqualTo(2);
+        assertThat(cache.getStatistics().getPinnedEntries()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotPinDerivedTreesAndRunningBuilds() {
+        var cache = new CoverageTreeCache(0);
+        var loads = new AtomicInteger();
+        var job = createJob("job", 1);
+        var completed = createBuild(job, 1);
+
+        cache.getDerived(completed, "skeleton:" + RESULT, () -> createTree(loads));
+        cache.getDerived(completed, "view:" + RESULT, () -> createTree(loads));
+        cache.get(createBuild(job, 2), RESULT, () -> createTree(loads));
+        assertThat(cache.getStatistics().getEntries()).isZero();
+
+        cache.get(completed, RESULT, () -> createTree(loads));
+        assertThat(cache.getStatistics().getEntries()).isEqualTo(1);
+        assertThat(cache.getStatistics().getPinnedEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPinTreeOfNewlyCompletedBuild() {
+        var loads = new AtomicInteger();
+        var cache = new CoverageTreeCache(estimateSize(createTree(loads)));
+        var job = createJob("job", 1);
+
+        cache.get(createBuild(job, 1), RESULT, () -> createTree(loads));
+        var running = createBuild(job, 2);
+        cache.get(running, RESULT, () -> createTree(loads));
+        assertThat(cache.getStatistics().getEntries()).isEqualTo(1);
+
+        cache.setLastCompletedBuild(running);
+        cache.get(running, RESULT, () -> createTree(loads));
+        cache.get(createBuild(job, 1), RESULT, () -> createTree(loads));
+
+        assertThat(cache.getStatistics().getEntries()).isEqualTo(1);
+        assertThat(cache.getStatistics().getPinnedEntries()).isEqualTo(1);
+        verify(job).getLastCompletedBuild(); // resolved only once for each job
+    }
+
+    @Test
+    void shouldLoadTreeOnlyOnceForConcurrentRequests() throws InterruptedException, ExecutionException {
+        var cache = new CoverageTreeCache(Long.MAX_VALUE);
+        var build = createBuild(createJob("job", 1), 1);
+        var loads = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> cache.get(build, RESULT, () -> {
+                started.countDown();
+                await(release);
+                return createTree(loads);
+            }));
+            started.await();
+            var second = executor.submit(() -> cache.get(build, RESULT, () -> createTree(loads)));
+            release.countDown();
+
+            assertThat(second.get()).isSameAs(first.get());
+            assertThat(loads).hasValue(1);
+            assertThat(cache.getStatistics().getLoads()).isEqualTo(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldInvalidateTreesOfBuild() {
+        var cache = new CoverageTreeCache(Long.MAX_VALUE);
+        var loads = new AtomicInteger();
+        var job = createJob("job", 2);
+        var build = createBuild(job, 1);
+
+        cache.get(build, RESULT, () -> createTree(loads));
+        cache.getDerived(build, "skeleton:" + RESULT, () -> createTree(loads));
+        cache.get(createBuild(job, 2), RESULT, () -> createTree(loads));
+        assertThat(cache.getStatistics().getEntries()).isEqualTo(3);
+
+        cache.invalidate(build);
+
+        assertThat(cache.getStatistics().getEntries()).isEqualTo(1);
+        assertThat(cache.getStatistics().getEstimatedBytes()).isEqualTo(estimateSize(createTree(loads)));
+
+        cache.clear();
+
+        assertThat(cache.getStatistics().getEntries()).isZero();
+        assertThat(cache.getStatistics().getEstimatedBytes()).isZero();
+    }
+
+    @Test
+    void shouldEstimateSizeOfTree() {
+        var loads = new AtomicInteger();
+
+        assertThat(estimateSize(new ModuleNode("empty"))).isEqualTo(NODE_BYTES);
+        assertThat(estimateSize(createTree(loads))).isEqualTo(2 * NODE_BYTES + 2 * LINE_BYTES);
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Node createTree(final AtomicInteger loads) {
+        loads.incrementAndGet();
+
+        var root = new ModuleNode("module");
+        var file = new FileNode("File.java", "path/File.java");
+        file.addCounters(10, 1, 0);
+        file.addCounters(11, 0, 1);
+        root.addChild(file);
+        return root;
+    }
+
+    private Job<?, ?> createJob(final String jobName, final int lastCompletedBuild) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(jobName);
+        var build = createBuild(job, lastCompletedBuild);
+        doReturn(build).when(job).getLastCompletedBuild();
+        return job;
+    }
+
+    private Run<?, ?> createBuild(final Job<?, ?> job, final int number) {
+        Run<?, ?> build = mock(Run.class);
+        doReturn(job).when(build).getParent();
+        when(build.getNumber()).thenReturn(number);
+        return build;
+    }
+}
@@ -16,6 +16,7 @@ import edu.hm.hafner.util.SerializableTest;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
@@ -102,6 +103,25 @@ class CoverageXmlStreamITest extends SerializableTest<Node> {
                         "[19: 0, 20: 0, 31: 0, 43: 0, 50: 0, 51: 0, 54: 0, 57: 0, 61: 1, 62: 1, 70: 0, 72: 0, 73: 0, 74: 0, 85: 0, 86: 0, 89: 0, 90: 0, 91: 0, 92: 0, 93: 0, 95: 0, 96: 0, 97: 0, 100: 0, 101: 0, 103: 0, 106: 0, 109: 0, 112: 0, 113: 1, 114: 0, 115: 0, 117: 0, 125: 0, 126: 0, 128: 0, 140: 0, 142: 0, 143: 0, 144: 0, 146: 0, 160: 0, 162: 0, 163: 0, 164: 0, 167: 0, 177: 0, 178: 0, 179: 0, 180: 0, 181: 0, 184: 0]");
     }
 
+    @Test
+    void shouldSaveAndRestoreCompressedTree() throws IOException {
+        Path plain = createTempFile();
+        Path compressed = createTempFile();
+        Node convertedNode = createSerializable();
+
+        new CoverageXmlStream().write(plain, convertedNode);
+        new CoverageXmlStream(true).write(compressed, convertedNode);
+
+        then(CoverageXmlStream.isCompressed(plain)).isFalse();
+        then(CoverageXmlStream.isCompressed(compressed)).isTrue();
+        then(Files.size(compressed)).isLessThan(Files.size(plain) / 5);
+
+        for (CoverageXmlStream stream : List.of(new CoverageXmlStream(), new CoverageXmlStream(true))) {
+            Assertions.assertThat(stream.read(plain)).usingRecursiveComparison().isEqualTo(convertedNode);
+            Assertions.assertThat(stream.read(compressed)).usingRecursiveComparison().isEqualTo(convertedNode);
+        }
+    }
+
     @Test
     void shouldStoreActionCompactly() throws IOException {
         Path saved = createTempFile();
@@ -263,6 +283,10 @@ class CoverageXmlStreamITest extends SerializableTest<Node> {
 
         set.add(15);
         assertThat(converter.marshal(set)).isEqualTo("[10, 15]");
+
+        set.add(11);
+        set.add(12);
+        assertThat(converter.marshal(set)).isEqualTo("[10-12, 15]");
     }
 
     @Test
@@ -272,6 +296,7 @@ class CoverageXmlStreamITest extends SerializableTest<Node> {
         Assertions.assertThat(converter.unmarshal(EMPTY)).isEmpty();
         Assertions.assertThat(converter.unmarshal("[15]")).containsExactly(15);
         Assertions.assertThat(converter.unmarshal("[15, 20]")).containsExactly(15, 20);
+        Assertions.assertThat(converter.unmarshal("[15-17, 20]")).containsExactly(15, 16, 17, 20);
     }
 
     CoverageBuildAction createAction() {
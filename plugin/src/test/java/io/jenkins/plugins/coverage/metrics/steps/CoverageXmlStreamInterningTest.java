@@ -0,0 +1,83 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.ContainerNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageXmlStreamInterningTest extends AbstractCoverageTest {
+    private static final int LOADED_TREES = 10;
+
+    @Test
+    void shouldShareValuesAndNamesOfAllLoadedTrees(@TempDir final Path folder) {
+        var container = new ContainerNode("Container");
+        container.addChild(readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE));
+        container.addChild(readJacocoResult(JACOCO_CODING_STYLE_FILE));
+
+        var plain = folder.resolve("coverage.xml");
+        new CoverageXmlStream().write(plain, container);
+        var compressed = folder.resolve("coverage.xml.gz");
+        new CoverageXmlStream(true).write(compressed, container);
+
+        var trees = new ArrayList<Node>();
+        for (int i = 0; i < LOADED_TREES; i++) {
+            trees.add(new CoverageXmlStream().read(i % 2 == 0 ? plain : compressed));
+        }
+        assertThat(trees).allSatisfy(tree -> assertThat(tree).usingRecursiveComparison().isEqualTo(container));
+
+        var values = collect(trees, node -> node.getValues().stream());
+        var names = collect(trees, node -> Stream.of(node.getName()));
+
+        assertThat(countInstances(values)).isEqualTo(new HashSet<>(values).size());
+        assertThat(countInstances(names)).isEqualTo(new HashSet<>(names).size());
+
+        // heap footprint: without interning each loaded tree would retain its own instances
+        assertThat(countInstances(values)).isLessThanOrEqualTo(values.size() / LOADED_TREES);
+        assertThat(countInstances(names)).isLessThanOrEqualTo(names.size() / LOADED_TREES);
+    }
+
+    @Test
+    void shouldInternValuesOfIndependentStreams(@TempDir final Path folder) {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var file = folder.resolve("coverage.xml");
+        new CoverageXmlStream().write(file, root);
+
+        var first = new CoverageXmlStream().read(file);
+        var second = new CoverageXmlStream(true).read(file);
+
+        assertThat(second.getValues()).hasSameSizeAs(first.getValues());
+        for (int i = 0; i < first.getValues().size(); i++) {
+            assertThat(second.getValues().get(i)).isSameAs(first.getValues().get(i));
+        }
+        assertThat(second.getAllFileNodes().get(0).getRelativePath())
+                .isSameAs(first.getAllFileNodes().get(0).getRelativePath());
+    }
+
+    private <T> List<T> collect(final List<Node> trees, final Function<Node, Stream<T>> mapper) {
+        return trees.stream().flatMap(this::nodes).flatMap(mapper).toList();
+    }
+
+    private Stream<Node> nodes(final Node root) {
+        return Stream.concat(Stream.of(root), root.getChildren().stream().flatMap(this::nodes));
+    }
+
+    private int countInstances(final List<?> objects) {
+        var instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        instances.addAll(objects);
+        return instances.size();
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.delta.Delta;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeltaCacheTest {
+    private static final String SCM = "git";
+
+    @Test
+    void shouldComputeDeltaOnlyOncePerBuild() {
+        var cache = new DeltaCache();
+        var build = createBuild("job#2");
+        var reference = createBuild("job#1");
+        var delta = mock(Delta.class);
+        var calls = new AtomicInteger();
+
+        var log = new FilteredLog("Errors");
+        assertThat(cache.get(build, reference, SCM, log, () -> compute(calls, delta))).contains(delta);
+        assertThat(cache.get(build, reference, SCM, log, () -> compute(calls, delta))).contains(delta);
+        assertThat(calls).hasValue(1);
+        assertThat(log.getInfoMessages()).hasSize(1).first().asString().contains("Reusing the code delta");
+
+        assertThat(cache.get(build, reference, "other", log, () -> compute(calls, delta))).contains(delta);
+        assertThat(cache.get(build, createBuild("job#0"), SCM, log, () -> compute(calls, delta))).contains(delta);
+        assertThat(calls).hasValue(3);
+        assertThat(cache.size()).isEqualTo(3);
+
+        cache.invalidate(createBuild("other#1"));
+        assertThat(cache.size()).isEqualTo(3);
+
+        cache.invalidate(build);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(build, reference, SCM, log, () -> compute(calls, delta))).contains(delta);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void shouldNotCacheMissingDelta() {
+        var cache = new DeltaCache();
+        var build = createBuild("job#2");
+        var reference = createBuild("job#1");
+
+        var log = new FilteredLog("Errors");
+        assertThat(cache.get(build, reference, SCM, log, Optional::empty)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    private Optional<Delta> compute(final AtomicInteger calls, final Delta delta) {
+        calls.incrementAndGet();
+        return Optional.of(delta);
+    }
+
+    private Run<?, ?> createBuild(final String id) {
+        Run<?, ?> build = mock(Run.class);
+        when(build.getExternalizableId()).thenReturn(id);
+        when(build.getFullDisplayName()).thenReturn(id);
+        return build;
+    }
+}
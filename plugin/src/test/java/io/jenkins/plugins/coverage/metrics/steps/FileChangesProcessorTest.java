@@ -2,11 +2,17 @@ package io.jenkins.plugins.coverage.metrics.steps;
 
 import org.junit.jupiter.api.Test;
 
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.Difference;
 import edu.hm.hafner.coverage.FileNode;
 import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
 
 import java.util.AbstractMap.SimpleEntry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 
 import io.jenkins.plugins.coverage.metrics.AbstractModifiedFilesCoverageTest;
 
@@ -64,6 +70,50 @@ class FileChangesProcessorTest extends AbstractModifiedFilesCoverageTest {
                 });
     }
 
+    @Test
+    void shouldComputeSameResultsInParallel() {
+        var reference = createTreeWithManyFiles(1);
+        var sequential = createTreeWithManyFiles(2);
+        var parallel = createTreeWithManyFiles(2);
+
+        Map<String, String> pathMapping = new HashMap<>();
+        sequential.getAllFileNodes().forEach(file -> pathMapping.put(file.getRelativePath(), file.getRelativePath()));
+
+        var sequentialProcessor = new FileChangesProcessor(1);
+        sequentialProcessor.attachIndirectCoveragesChanges(sequential, reference, Map.of(), pathMapping);
+        sequentialProcessor.attachFileCoverageDeltas(sequential, reference, pathMapping);
+
+        var parallelProcessor = new FileChangesProcessor(4);
+        parallelProcessor.attachIndirectCoveragesChanges(parallel, reference, Map.of(), pathMapping);
+        parallelProcessor.attachFileCoverageDeltas(parallel, reference, pathMapping);
+
+        assertThat(parallel.getAllFileNodes()).hasSize(200).zipSatisfy(sequential.getAllFileNodes(),
+                (actual, expected) -> {
+                    assertThat(actual.getIndirectCoverageChanges()).isEqualTo(expected.getIndirectCoverageChanges());
+                    assertThat(actual.getDelta(Metric.LINE)).isEqualTo(expected.getDelta(Metric.LINE));
+                });
+        assertThat(parallel.getAllFileNodes()).anySatisfy(
+                file -> assertThat(file.getIndirectCoverageChanges()).isNotEmpty());
+    }
+
+    private Node createTreeWithManyFiles(final long seed) {
+        var random = new Random(seed);
+        var module = new ModuleNode("module");
+        for (int i = 0; i < 200; i++) {
+            var file = new FileNode("File" + i + ".java", "path/File" + i + ".java");
+            int covered = 0;
+            for (int line = 1; line <= 50; line++) {
+                int coveredOfLine = random.nextInt(2);
+                file.addCounters(line, coveredOfLine, 1 - coveredOfLine);
+                covered += coveredOfLine;
+            }
+            file.addValue(new CoverageBuilder().withMetric(Metric.LINE)
+                    .withCovered(covered).withMissed(50 - covered).build());
+            module.addChild(file);
+        }
+        return module;
+    }
+
     /**
      * Verifies the file coverage delta of {@link #getPathOfFileWithModifiedLines() the modified file}.
      *
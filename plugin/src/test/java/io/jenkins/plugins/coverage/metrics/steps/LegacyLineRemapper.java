@@ -0,0 +1,103 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+
+/**
+ * The former implementation of the line mapping in {@link FileChangesProcessor} that uses lists of boxed integers. It
+ * is used as a reference for the results and the performance of the {@link LineRemapper}.
+ */
+final class LegacyLineRemapper {
+    private LegacyLineRemapper() {
+        // prevents instantiation
+    }
+
+    static SortedMap<Integer, Integer> remap(final SortedMap<Integer, Integer> reference,
+            final FileChanges fileChanges) {
+        SortedMap<Integer, Integer> coveragePerLine = new TreeMap<>(reference);
+        List<List<Integer>> coverages = transformCoveragePerLine(coveragePerLine, fileChanges);
+
+        fileChanges.getChangesByType(ChangeEditType.DELETE).forEach(change -> {
+            for (int i = change.getChangedFromLine(); i <= change.getChangedToLine(); i++) {
+                coverages.get(i).clear();
+            }
+        });
+
+        fileChanges.getChangesByType(ChangeEditType.INSERT).forEach(change -> {
+            List<Integer> inserted = coverages.get(change.getChangedFromLine());
+            int changedLinesNumber = change.getToLine() - change.getFromLine() + 1;
+            fillCoverageListWithNull(inserted, changedLinesNumber);
+        });
+
+        fileChanges.getChangesByType(ChangeEditType.REPLACE).forEach(change -> {
+            List<Integer> replaced = coverages.get(change.getChangedFromLine());
+            replaced.clear();
+            int changedLinesNumber = change.getToLine() - change.getFromLine() + 1;
+            fillCoverageListWithNull(replaced, changedLinesNumber);
+            for (int i = change.getChangedFromLine() + 1; i <= change.getChangedToLine(); i++) {
+                coverages.get(i).clear();
+            }
+        });
+
+        List<Integer> adjustedCoveragesList = coverages.stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList());
+
+        coveragePerLine.clear();
+        for (int line = 1; line < adjustedCoveragesList.size(); line++) {
+            var coverage = adjustedCoveragesList.get(line);
+            if (coverage != null) {
+                coveragePerLine.put(line, coverage);
+            }
+        }
+        return coveragePerLine;
+    }
+
+    private static List<List<Integer>> transformCoveragePerLine(
+            final SortedMap<Integer, Integer> coveragePerLine, final FileChanges fileChanges) {
+        List<List<Integer>> coverages = coveragePerLine.values().stream()
+                .map(coverage -> new ArrayList<>(Collections.singletonList(coverage)))
+                .collect(Collectors.toList());
+
+        int maxLineNumber = coveragePerLine.lastKey();
+        Optional<Integer> highestLineNumber = fileChanges.getChanges().values().stream()
+                .flatMap(Set::stream)
+                .map(Change::getChangedToLine)
+                .max(Comparator.naturalOrder());
+        if (highestLineNumber.isPresent() && highestLineNumber.get() > maxLineNumber) {
+            maxLineNumber = highestLineNumber.get();
+        }
+
+        IntStream.range(0, maxLineNumber + 1)
+                .filter(line -> !coveragePerLine.containsKey(line))
+                .forEach(line -> {
+                    if (line < coverages.size()) {
+                        coverages.add(line, new ArrayList<>(Collections.singletonList(null)));
+                    }
+                    else {
+                        coverages.add(new ArrayList<>(Collections.singletonList(null)));
+                    }
+                });
+
+        return coverages;
+    }
+
+    private static void fillCoverageListWithNull(final List<Integer> coverageList, final int number) {
+        for (int i = 0; i < number; i++) {
+            coverageList.add(null);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import io.jenkins.plugins.coverage.metrics.model.LineCounters;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageXmlStream.IntegerLineMapConverter;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageXmlStream.LineCountersConverter;
+
+/**
+ * Compares the allocations of loading the covered and missed items per line of a large report (50.000 files with 120
+ * lines each) with the boxed {@link IntegerLineMapConverter} and the packed {@link LineCountersConverter}. The boxed
+ * variant additionally converts the maps into the arrays that are required for painting the source code. The
+ * allocations are reported by the GC profiler ({@code gc.alloc.rate.norm}). Run the {@link #main(String[])} method
+ * from the IDE or with the test classpath to execute the benchmark.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineCountersBenchmark {
+    private static final int LINES = 120;
+
+    @Param("50000")
+    private int files;
+
+    private String[] coveredPerLine;
+    private String[] missedPerLine;
+    private String[] counters;
+
+    /**
+     * Creates the serialized counters of all files.
+     */
+    @Setup(Level.Trial)
+    public void createCounters() {
+        var random = new Random(42);
+        var boxed = new IntegerLineMapConverter();
+        coveredPerLine = new String[files];
+        missedPerLine = new String[files];
+        counters = new String[files];
+        for (int file = 0; file < files; file++) {
+            var lines = new int[LINES];
+            var covered = new int[LINES];
+            var missed = new int[LINES];
+            int line = 0;
+            for (int i = 0; i < LINES; i++) {
+                line += 1 + random.nextInt(5);
+                lines[i] = line;
+                covered[i] = random.nextInt(3);
+                missed[i] = random.nextInt(2);
+            }
+            var packed = LineCounters.of(lines, covered, missed);
+            counters[file] = packed.serialize();
+
+            var coveredMap = new TreeMap<Integer, Integer>();
+            var missedMap = new TreeMap<Integer, Integer>();
+            for (int i = 0; i < LINES; i++) {
+                coveredMap.put(lines[i], covered[i]);
+                missedMap.put(lines[i], missed[i]);
+            }
+            coveredPerLine[file] = boxed.marshal(coveredMap);
+            missedPerLine[file] = boxed.marshal(missedMap);
+        }
+    }
+
+    /**
+     * Loads the counters into boxed maps and converts them into arrays for painting.
+     *
+     * @param blackhole
+     *         consumes the results
+     */
+    @Benchmark
+    public void loadBoxedMaps(final Blackhole blackhole) {
+        var converter = new IntegerLineMapConverter();
+        for (int file = 0; file < files; file++) {
+            var covered = converter.unmarshal(coveredPerLine[file]);
+            var missed = converter.unmarshal(missedPerLine[file]);
+            blackhole.consume(covered.keySet().stream().mapToInt(i -> i).toArray());
+            blackhole.consume(covered.values().stream().mapToInt(i -> i).toArray());
+            blackhole.consume(missed.values().stream().mapToInt(i -> i).toArray());
+        }
+    }
+
+    /**
+     * Loads the counters into packed primitive arrays.
+     *
+     * @param blackhole
+     *         consumes the results
+     */
+    @Benchmark
+    public void loadPackedCounters(final Blackhole blackhole) {
+        for (int file = 0; file < files; file++) {
+            blackhole.consume(LineCounters.valueOf(counters[file]));
+        }
+    }
+
+    /**
+     * Runs the benchmark with the GC profiler.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LineCountersBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.parser.PitestParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+import io.jenkins.plugins.coverage.metrics.steps.LineDataStore.AttachingStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LineDataStoreTest extends AbstractCoverageTest {
+    @Test
+    void shouldWriteSkeletonWithoutLineData(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var file = folder.resolve("coverage.xml");
+
+        new CoverageXmlStream().writeSkeleton(file, root);
+        var skeleton = new CoverageXmlStream().read(file);
+
+        assertThat(skeleton.aggregateValues()).isEqualTo(root.aggregateValues());
+        assertThat(skeleton.getAllFileNodes()).hasSameSizeAs(root.getAllFileNodes())
+                .allSatisfy(fileNode -> assertThat(fileNode.getLinesWithCoverage()).isEmpty());
+    }
+
+    @Test
+    void shouldRestoreCompleteTreeFromSkeletonAndLineData(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        assertThat(writeAndRead(folder, root, new CoverageXmlStream())).usingRecursiveComparison().isEqualTo(root);
+        assertThat(writeAndRead(folder, root, new CoverageXmlStream(true))).usingRecursiveComparison().isEqualTo(root);
+    }
+
+    @Test
+    void shouldRestoreMutations(@TempDir final Path folder) throws IOException {
+        var root = readResult("mutations.xml", new PitestParser());
+
+        var restored = writeAndRead(folder, root, new CoverageXmlStream());
+
+        var mutations = root.getAllFileNodes().stream().mapToInt(file -> file.getMutations().size()).sum();
+        assertThat(mutations).isPositive();
+        assertThat(restored.getAllFileNodes()).flatExtracting(FileNode::getMutations).hasSize(mutations);
+        assertThat(restored).usingRecursiveComparison().isEqualTo(root);
+    }
+
+    @Test
+    void shouldAttachLineDataOfSelectedFilesOnly(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var skeletonFile = folder.resolve("coverage.xml");
+        var lineData = folder.resolve("coverage-lines.cov");
+        new CoverageXmlStream().writeSkeleton(skeletonFile, root);
+        LineDataStore.write(lineData, root);
+
+        var selected = root.getAllFileNodes().get(3);
+        var skeleton = new CoverageXmlStream().read(skeletonFile);
+        LineDataStore.attach(lineData, skeleton, file -> file.getRelativePath().equals(selected.getRelativePath()));
+
+        assertThat(skeleton.getAllFileNodes()).allSatisfy(file -> {
+            if (file.getRelativePath().equals(selected.getRelativePath())) {
+                assertThat(file.getCounters()).isEqualTo(selected.getCounters()).isNotEmpty();
+            }
+            else {
+                assertThat(file.getLinesWithCoverage()).isEmpty();
+            }
+        });
+    }
+
+    @Test
+    void shouldReadSingleFileWithoutModifyingSkeleton(@TempDir final Path folder) throws IOException {
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var skeletonFile = folder.resolve("coverage.xml");
+        var lineData = folder.resolve("coverage-lines.cov");
+        new CoverageXmlStream().writeSkeleton(skeletonFile, root);
+        LineDataStore.write(lineData, root);
+
+        var selected = root.getAllFileNodes().get(3);
+        var skeleton = new CoverageXmlStream().read(skeletonFile);
+        var hash = selected.getRelativePath().hashCode();
+
+        assertThat(LineDataStore.readFile(lineData, skeleton, file -> file.getRelativePath().hashCode() == hash))
+                .hasValueSatisfying(file -> {
+                    assertThat(file.getRelativePath()).isEqualTo(selected.getRelativePath());
+                    assertThat(file.getCounters()).isEqualTo(selected.getCounters()).isNotEmpty();
+                    assertThat(file.aggregateValues()).isEqualTo(selected.aggregateValues());
+                });
+        assertThat(skeleton.getAllFileNodes()).allSatisfy(file -> assertThat(file.getLinesWithCoverage()).isEmpty());
+        assertThat(LineDataStore.readFile(lineData, skeleton, file -> false)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectStoreOfOtherTree(@TempDir final Path folder) throws IOException {
+        var lineData = folder.resolve("coverage-lines.cov");
+        LineDataStore.write(lineData, readJacocoResult(JACOCO_CODING_STYLE_FILE));
+
+        var skeleton = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        assertThatIllegalStateException().isThrownBy(() -> LineDataStore.attach(lineData, skeleton, file -> true))
+                .withMessageContaining(lineData.toString());
+    }
+
+    @Test
+    void shouldWriteStoreWithoutLeavingTemporaryFiles(@TempDir final Path folder) throws IOException {
+        var lineData = folder.resolve("coverage-lines.cov");
+        var root = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+
+        LineDataStore.write(lineData, readJacocoResult(JACOCO_CODING_STYLE_FILE));
+        LineDataStore.write(lineData, root); // replaces the existing store
+
+        try (var files = Files.list(folder)) {
+            assertThat(files).containsExactly(lineData);
+        }
+        assertThatIOException().isThrownBy(
+                () -> LineDataStore.write(folder.resolve("missing").resolve("lines.cov"), root));
+    }
+
+    private Node writeAndRead(final Path folder, final Node root, final CoverageXmlStream stream)
+            throws IOException {
+        var skeletonFile = folder.resolve("coverage.xml");
+        var lineData = folder.resolve("coverage-lines.cov");
+        stream.writeSkeleton(skeletonFile, root);
+        LineDataStore.write(lineData, root);
+
+        return new AttachingStream(stream, lineData).read(skeletonFile);
+    }
+}
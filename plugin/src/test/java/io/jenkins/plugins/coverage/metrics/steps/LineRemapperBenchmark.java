@@ -0,0 +1,84 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import io.jenkins.plugins.forensics.delta.FileChanges;
+
+/**
+ * Compares the former list based line mapping of {@link FileChangesProcessor} with the {@link LineRemapper}. Run the
+ * {@link #main(String[])} method from the IDE or with the test classpath to execute the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LineRemapperBenchmark {
+    @Param({"1000", "20000"})
+    private int lines;
+
+    private SortedMap<Integer, Integer> reference;
+    private FileChanges changes;
+
+    /**
+     * Creates a reference file and the changes of the file.
+     */
+    @Setup(Level.Trial)
+    public void createFile() {
+        var random = new Random(lines);
+        reference = LineRemapperTest.createSparseCoverage(random, lines);
+        changes = LineRemapperTest.createRandomChanges(random, lines);
+    }
+
+    /**
+     * Maps the lines with the former implementation.
+     *
+     * @return the mapped lines
+     */
+    @Benchmark
+    public SortedMap<Integer, Integer> remapWithLists() {
+        return LegacyLineRemapper.remap(reference, changes);
+    }
+
+    /**
+     * Maps the lines with the {@link LineRemapper}.
+     *
+     * @return the mapped lines
+     */
+    @Benchmark
+    public int[] remapWithArrays() {
+        return LineRemapper.remap(reference, changes);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LineRemapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
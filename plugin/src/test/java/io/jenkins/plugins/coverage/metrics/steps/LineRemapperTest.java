@@ -0,0 +1,116 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+import io.jenkins.plugins.forensics.delta.FileEditType;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LineRemapperTest {
+    @Test
+    void shouldKeepLinesWithoutChanges() {
+        var coverage = LineRemapper.remap(createCoverage(10), null);
+
+        assertThat(toMap(coverage)).isEqualTo(createCoverage(10));
+        assertThat(LineRemapper.getCoverage(coverage, 0)).isEqualTo(LineRemapper.NO_COVERAGE);
+        assertThat(LineRemapper.getCoverage(coverage, 11)).isEqualTo(LineRemapper.NO_COVERAGE);
+    }
+
+    @Test
+    void shouldShiftLinesOfChanges() {
+        var changes = createFileChanges();
+        changes.addChange(new Change(ChangeEditType.INSERT, 2, 2, 3, 4));
+        changes.addChange(new Change(ChangeEditType.DELETE, 5, 5, 7, 7));
+        changes.addChange(new Change(ChangeEditType.REPLACE, 7, 8, 8, 8));
+
+        var coverage = LineRemapper.remap(createCoverage(10), changes);
+
+        assertThat(toMap(coverage)).containsExactly(
+                entry(1, 1), entry(2, 2), entry(5, 3), entry(6, 4), entry(7, 6), entry(9, 9), entry(10, 10));
+    }
+
+    @Test
+    void shouldCreateSameResultsAsLegacyImplementation() {
+        var random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            var reference = createSparseCoverage(random, 1 + random.nextInt(500));
+            var changes = createRandomChanges(random, reference.lastKey() + 20);
+
+            assertThat(toMap(LineRemapper.remap(reference, changes)))
+                    .as("Run %d", run)
+                    .isEqualTo(LegacyLineRemapper.remap(reference, changes));
+        }
+    }
+
+    static FileChanges createRandomChanges(final Random random, final int lines) {
+        var changes = createFileChanges();
+        int oldLine = 1;
+        int newLine = 1;
+        while (oldLine < lines) {
+            oldLine += random.nextInt(20);
+            int oldLength = 1 + random.nextInt(5);
+            int newLength = 1 + random.nextInt(5);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    changes.addChange(new Change(ChangeEditType.INSERT, oldLine, oldLine,
+                            newLine, newLine + newLength - 1));
+                    newLine += newLength;
+                    oldLine++;
+                }
+                case 1 -> {
+                    changes.addChange(new Change(ChangeEditType.DELETE, oldLine, oldLine + oldLength - 1,
+                            newLine, newLine));
+                    oldLine += oldLength;
+                }
+                default -> {
+                    changes.addChange(new Change(ChangeEditType.REPLACE, oldLine, oldLine + oldLength - 1,
+                            newLine, newLine + newLength - 1));
+                    oldLine += oldLength;
+                    newLine += newLength;
+                }
+            }
+        }
+        return changes;
+    }
+
+    static SortedMap<Integer, Integer> createSparseCoverage(final Random random, final int lines) {
+        SortedMap<Integer, Integer> coverage = new TreeMap<>();
+        for (int line = 1; line <= lines; line++) {
+            if (random.nextBoolean()) {
+                coverage.put(line, random.nextInt(5));
+            }
+        }
+        coverage.putIfAbsent(lines, 1);
+        return coverage;
+    }
+
+    private static FileChanges createFileChanges() {
+        return new FileChanges("file.java", "file.java", "", FileEditType.MODIFY, new EnumMap<>(ChangeEditType.class));
+    }
+
+    private SortedMap<Integer, Integer> createCoverage(final int lines) {
+        SortedMap<Integer, Integer> coverage = new TreeMap<>();
+        for (int line = 1; line <= lines; line++) {
+            coverage.put(line, line);
+        }
+        return coverage;
+    }
+
+    private SortedMap<Integer, Integer> toMap(final int... coverage) {
+        SortedMap<Integer, Integer> lines = new TreeMap<>();
+        for (int line = 1; line < coverage.length; line++) {
+            if (coverage[line] != LineRemapper.NO_COVERAGE) {
+                lines.put(line, coverage[line]);
+            }
+        }
+        return lines;
+    }
+}
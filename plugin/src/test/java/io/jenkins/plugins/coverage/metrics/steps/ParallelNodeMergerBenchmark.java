@@ -0,0 +1,95 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.coverage.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+
+/**
+ * Compares the sequential merge of {@link Node#merge(List)} with the {@link ParallelNodeMerger}. Run the
+ * {@link #main(String[])} method from the IDE or with the test classpath to execute the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelNodeMergerBenchmark extends AbstractCoverageTest {
+    @Param({"16", "128", "512"})
+    private int modules;
+
+    private Node tree;
+    private List<Node> trees;
+
+    /**
+     * Reads the coverage tree that will be copied for each module.
+     */
+    @Setup(Level.Trial)
+    public void readTree() {
+        tree = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+    }
+
+    /**
+     * Creates fresh copies of the modules since merging may reuse the nodes of the input trees.
+     */
+    @Setup(Level.Invocation)
+    public void copyTrees() {
+        trees = new ArrayList<>();
+        for (int i = 0; i < modules; i++) {
+            trees.add(tree.copyTree());
+        }
+    }
+
+    /**
+     * Merges the modules sequentially.
+     *
+     * @return the merged tree
+     */
+    @Benchmark
+    public Node mergeSequentially() {
+        return Node.merge(trees);
+    }
+
+    /**
+     * Merges the modules in parallel.
+     *
+     * @return the merged tree
+     */
+    @Benchmark
+    public Node mergeInParallel() {
+        return new ParallelNodeMerger(2, 4).merge(trees);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelNodeMergerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParallelNodeMergerTest extends AbstractCoverageTest {
+    @Test
+    void shouldCreateSameTreeAsSequentialMerge() {
+        var analysisModel = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var codingStyle = readJacocoResult(JACOCO_CODING_STYLE_FILE);
+
+        var parallel = new ParallelNodeMerger(2, 4).merge(createTrees(analysisModel, codingStyle));
+        var sequential = Node.merge(createTrees(analysisModel, codingStyle));
+
+        assertThat(parallel).usingRecursiveComparison().isEqualTo(sequential);
+        assertThat(parallel.aggregateValues()).isEqualTo(sequential.aggregateValues());
+    }
+
+    @Test
+    void shouldCombineTreesWithDifferentNamesInContainer() {
+        List<Node> modules = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            modules.add(new ModuleNode("module-" + i % 4));
+        }
+
+        var merged = new ParallelNodeMerger(2, 4).merge(modules);
+
+        assertThat(merged.getChildren()).extracting(Node::getName)
+                .containsExactlyInAnyOrder("module-0", "module-1", "module-2", "module-3");
+    }
+
+    @Test
+    void shouldUseSequentialMergeForSmallInputs() {
+        var module = new ModuleNode("module");
+
+        assertThat(new ParallelNodeMerger().merge(List.of(module))).isSameAs(module);
+        assertThatIllegalArgumentException().isThrownBy(() -> new ParallelNodeMerger().merge(List.of()));
+    }
+
+    @Test
+    void shouldUseSequentialMergeIfParallelismIsDisabled() {
+        var analysisModel = readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var codingStyle = readJacocoResult(JACOCO_CODING_STYLE_FILE);
+
+        var merged = new ParallelNodeMerger(2, 1).merge(createTrees(analysisModel, codingStyle));
+
+        assertThat(merged).usingRecursiveComparison().isEqualTo(Node.merge(createTrees(analysisModel, codingStyle)));
+    }
+
+    private List<Node> createTrees(final Node first, final Node second) {
+        List<Node> trees = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            trees.add(first.copyTree());
+            trees.add(second.copyTree());
+        }
+        return trees;
+    }
+}
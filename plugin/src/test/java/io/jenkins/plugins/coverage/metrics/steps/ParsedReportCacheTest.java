@@ -0,0 +1,125 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.jenkins.plugins.coverage.metrics.AbstractCoverageTest;
+import io.jenkins.plugins.coverage.metrics.steps.CoverageTool.Parser;
+import io.jenkins.plugins.coverage.metrics.steps.ParsedReportCache.Key;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParsedReportCacheTest extends AbstractCoverageTest {
+    private static final long MODULE_SIZE = CoverageTreeCache.NODE_BYTES;
+
+    @TempDir
+    private Path folder;
+
+    @Test
+    void shouldCreateKeysFromContent() throws IOException {
+        var first = write("first.xml", "content");
+        var second = write("second.xml", "content");
+        var third = write("third.xml", "other content");
+
+        var key = ParsedReportCache.createKey(first, Parser.JACOCO, ProcessingMode.FAIL_FAST);
+        assertThat(ParsedReportCache.createKey(second, Parser.JACOCO, ProcessingMode.FAIL_FAST)).isEqualTo(key);
+        assertThat(ParsedReportCache.createKey(third, Parser.JACOCO, ProcessingMode.FAIL_FAST)).isNotEqualTo(key);
+        assertThat(ParsedReportCache.createKey(first, Parser.COBERTURA, ProcessingMode.FAIL_FAST)).isNotEqualTo(key);
+        assertThat(ParsedReportCache.createKey(first, Parser.JACOCO, ProcessingMode.IGNORE_ERRORS)).isNotEqualTo(key);
+    }
+
+    @Test
+    void shouldReturnCopiesOfCachedReports() {
+        var cache = new ParsedReportCache(MODULE_SIZE * 10);
+        var key = createKey("a");
+        var module = new ModuleNode("module");
+
+        cache.put(key, List.of(module), createLog());
+
+        assertThat(cache.get(key, createLog())).hasValueSatisfying(cached -> assertThat(cached).singleElement()
+                .satisfies(copy -> {
+                    assertThat(copy).isNotSameAs(module);
+                    assertThat(copy.getName()).isEqualTo("module");
+                }));
+        assertThat(cache.get(createKey("b"), createLog())).isEmpty();
+    }
+
+    @Test
+    void shouldReplayMessagesOfParser() {
+        var cache = new ParsedReportCache(MODULE_SIZE * 10);
+        var key = createKey("a");
+        var parserLog = createLog();
+        parserLog.logInfo("Skipping empty class %s", "Empty");
+        parserLog.logError("Found %d errors", 100);
+
+        cache.put(key, List.of(new ModuleNode("module")), parserLog);
+
+        var log = createLog();
+        assertThat(cache.get(key, log)).isPresent();
+        assertThat(log.getInfoMessages()).containsExactly("Skipping empty class Empty");
+        assertThat(log.getErrorMessages()).contains("Found 100 errors");
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedReports() {
+        var cache = new ParsedReportCache(MODULE_SIZE * 2 + MODULE_SIZE / 2);
+        var a = createKey("a");
+        var b = createKey("b");
+        var c = createKey("c");
+
+        cache.put(a, List.of(new ModuleNode("a")), createLog());
+        cache.put(b, List.of(new ModuleNode("b")), createLog());
+        assertThat(cache.get(a, createLog())).isPresent(); // b is now the least recently used report
+
+        cache.put(c, List.of(new ModuleNode("c")), createLog());
+
+        assertThat(cache.get(a, createLog())).isPresent();
+        assertThat(cache.get(b, createLog())).isEmpty();
+        assertThat(cache.get(c, createLog())).isPresent();
+        assertThat(cache.getEntries()).isEqualTo(2);
+        assertThat(cache.getSize()).isEqualTo(MODULE_SIZE * 2);
+
+        cache.put(createKey("d"), List.of(new ModuleNode("d"), new ModuleNode("e"), new ModuleNode("f")), createLog());
+        assertThat(cache.getEntries()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBoundCacheByEstimatedHeapSize() {
+        var root = (ModuleNode) readJacocoResult(JACOCO_ANALYSIS_MODEL_FILE);
+        var estimatedSize = CoverageTreeCache.estimateSize(root);
+        var cache = new ParsedReportCache(estimatedSize);
+
+        cache.put(createKey("a"), List.of(root), createLog());
+
+        assertThat(cache.getSize()).isEqualTo(estimatedSize).isGreaterThan(MODULE_SIZE);
+        assertThat(cache.getEntries()).isOne();
+
+        cache.put(createKey("b"), List.of(new ModuleNode("b")), createLog());
+
+        assertThat(cache.get(createKey("a"), createLog())).isEmpty();
+        assertThat(cache.getSize()).isEqualTo(MODULE_SIZE);
+    }
+
+    private FilteredLog createLog() {
+        return new FilteredLog("Errors");
+    }
+
+    private Key createKey(final String hash) {
+        return new Key(hash, Parser.JACOCO, ProcessingMode.FAIL_FAST);
+    }
+
+    private Path write(final String fileName, final String content) throws IOException {
+        var file = folder.resolve(fileName);
+        Files.writeString(file, content);
+        return file;
+    }
+}
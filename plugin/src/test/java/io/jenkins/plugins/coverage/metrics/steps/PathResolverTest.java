@@ -0,0 +1,72 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.jenkins.plugins.coverage.metrics.steps.PathResolver.AgentPathResolver;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PathResolverTest {
+    private static final String MAIN = "edu/hm/hafner/Main.java";
+    private static final String OTHER = "edu/hm/hafner/Other.java";
+    private static final String SOURCES = "src/main/java";
+
+    @Test
+    void shouldResolvePathsInSourceDirectories(@TempDir final Path workspace) throws IOException {
+        createFile(workspace.resolve(SOURCES).resolve(MAIN));
+
+        var result = new AgentPathResolver(Set.of(MAIN, OTHER), Set.of(), Set.of(SOURCES))
+                .invoke(workspace.toFile(), null);
+
+        assertThat(result.getResult()).containsExactly(entry(MAIN, SOURCES + "/" + MAIN));
+        assertThat(result.getErrorMessages()).anySatisfy(message -> assertThat(message).contains(OTHER));
+    }
+
+    @Test
+    void shouldReusePathsOfPreviousBuild(@TempDir final Path workspace) throws IOException {
+        createFile(workspace.resolve(SOURCES).resolve(MAIN));
+        createFile(workspace.resolve(SOURCES).resolve(OTHER));
+
+        var previous = Map.of(MAIN, SOURCES + "/" + MAIN, OTHER, "removed/" + OTHER);
+        var result = new AgentPathResolver(Set.of(MAIN, OTHER), Set.of(), Set.of(SOURCES), previous)
+                .invoke(workspace.toFile(), null);
+
+        assertThat(result.getResult()).containsOnly(
+                entry(MAIN, SOURCES + "/" + MAIN), entry(OTHER, SOURCES + "/" + OTHER));
+        assertThat(result.getInfoMessages()).contains(
+                "-> reused 1 source paths of previous build, resolved 1 source paths");
+    }
+
+    @Test
+    void shouldUseIndexForManyPaths(@TempDir final Path workspace) throws IOException {
+        Set<String> relativePaths = new HashSet<>();
+        for (int i = 0; i < 400; i++) {
+            var relativePath = "edu/hm/hafner/Class" + i + ".java";
+            if (i % 2 == 0) {
+                createFile(workspace.resolve(SOURCES).resolve(relativePath));
+            }
+            relativePaths.add(relativePath);
+        }
+
+        var result = new AgentPathResolver(relativePaths, Set.of(), Set.of(SOURCES))
+                .invoke(workspace.toFile(), null);
+
+        assertThat(result.getResult()).hasSize(200)
+                .containsEntry("edu/hm/hafner/Class0.java", SOURCES + "/edu/hm/hafner/Class0.java");
+        assertThat(result.getInfoMessages()).contains("-> indexed 200 files",
+                "-> finished resolving of absolute paths (found: 200, not found: 200)");
+    }
+
+    private void createFile(final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "class Main {}");
+    }
+}
@@ -0,0 +1,40 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+
+import hudson.model.Job;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResolvedPathsStoreTest {
+    @Test
+    void shouldStoreMappingPerId(@TempDir final File root) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getRootDir()).thenReturn(root);
+        var log = new FilteredLog("Errors");
+
+        var store = new ResolvedPathsStore();
+        assertThat(store.load(job, "coverage", Set.of(), log).getMapping()).isEmpty();
+
+        var mapping = Map.of("Main.java", "src/main/java/Main.java");
+        store.save(job, "coverage", Set.of("src/main/java"), mapping, Set.of("Generated.java"), log);
+
+        var loaded = store.load(job, "coverage", Set.of("src/main/java"), log);
+        assertThat(loaded.getMapping()).isEqualTo(mapping);
+        assertThat(loaded.getUnresolvedPaths()).containsExactly("Generated.java");
+        assertThat(store.load(job, "other", Set.of("src/main/java"), log).getMapping()).isEmpty();
+
+        var otherSources = store.load(job, "coverage", Set.of("src"), log);
+        assertThat(otherSources.getMapping()).isEmpty();
+        assertThat(otherSources.getUnresolvedPaths()).isEmpty();
+        assertThat(log.getErrorMessages()).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SourceFileIndexTest {
+    @Test
+    void shouldIndexSourceDirectoriesOnly(@TempDir final Path temp) throws IOException {
+        var workspace = Files.createDirectories(temp.resolve("workspace"));
+        var sources = Files.createDirectories(temp.resolve("sources"));
+        var inWorkspace = createFile(workspace.resolve("src/main/java/edu/hm/hafner/Main.java"));
+        var inSources = createFile(sources.resolve("edu/hm/hafner/External.java"));
+        var notIndexed = createFile(workspace.resolve("other/Other.java"));
+        createFile(workspace.resolve("src/main/java/.git/objects/file"));
+
+        var index = SourceFileIndex.create(List.of(workspace.resolve("src/main/java/edu"),
+                workspace.resolve("src/main/java"), sources), true, new FilteredLog("Errors"));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.contains(inWorkspace)).contains(true);
+        assertThat(index.contains(inSources)).contains(true);
+        assertThat(index.contains(workspace.resolve("src/main/java/edu/../edu/hm/hafner/Main.java"))).contains(true);
+        assertThat(index.contains(workspace.resolve("src/main/java/edu/hm/hafner/Missing.java"))).contains(false);
+        assertThat(index.contains(workspace.resolve("src/main/java/edu/hm/Main.java"))).contains(false);
+        assertThat(index.contains(workspace.resolve("src/main/java/.git/objects/file"))).contains(false);
+        assertThat(index.contains(notIndexed)).isEmpty();
+
+        assertThat(index.exists(notIndexed)).isTrue();
+        assertThat(index.exists(workspace.resolve("other/Missing.java"))).isFalse();
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldFollowSymbolicLinksOnlyIfEnabled(@TempDir final Path temp) throws IOException {
+        var sources = Files.createDirectories(temp.resolve("sources"));
+        var target = createFile(temp.resolve("target/edu/hm/hafner/Linked.java"));
+        Files.createSymbolicLink(sources.resolve("linked"), target.getParent());
+        Files.createSymbolicLink(sources.resolve("File.java"), target);
+
+        var following = SourceFileIndex.create(List.of(sources), true, new FilteredLog("Errors"));
+        assertThat(following.contains(sources.resolve("linked/Linked.java"))).contains(true);
+        assertThat(following.contains(sources.resolve("File.java"))).contains(true);
+
+        var skipping = SourceFileIndex.create(List.of(sources), false, new FilteredLog("Errors"));
+        assertThat(skipping.size()).isZero();
+        assertThat(skipping.contains(sources.resolve("linked/Linked.java"))).contains(false);
+        assertThat(skipping.contains(sources.resolve("File.java"))).contains(false);
+        assertThat(SourceFileIndex.empty(false).exists(sources.resolve("File.java"))).isFalse();
+        assertThat(SourceFileIndex.empty(true).exists(sources.resolve("File.java"))).isTrue();
+    }
+
+    @Test
+    void shouldHandleMissingSourceDirectories(@TempDir final Path temp) {
+        var index = SourceFileIndex.create(List.of(temp.resolve("missing")), true, new FilteredLog("Errors"));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.exists(temp.resolve("missing/File.java"))).isFalse();
+    }
+
+    private Path createFile(final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, "content");
+    }
+}
@@ -0,0 +1,105 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.coverage.ClassNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.PackageNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former mapping of test classes that searched the whole coverage tree for each unmapped test class with
+ * the {@link TestClassMapper}. Half of the test classes belong to packages that are not part of the coverage tree. Run
+ * the {@link #main(String[])} method from the IDE or with the test classpath to execute the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TestClassMapperBenchmark {
+    private static final int TESTS_PER_PACKAGE = 10;
+
+    @Param({"500", "5000"})
+    private int packages;
+
+    private Node coverageTree;
+    private List<ClassNode> testClasses;
+
+    /**
+     * Creates a fresh coverage tree and test classes since mapping modifies the tree.
+     */
+    @Setup(Level.Invocation)
+    public void createTree() {
+        coverageTree = new ModuleNode("module");
+        for (int p = 0; p < packages; p++) {
+            coverageTree.addChild(new PackageNode("edu.hm.hafner.p" + p));
+        }
+        testClasses = new ArrayList<>();
+        for (int t = 0; t < packages * TESTS_PER_PACKAGE; t++) {
+            testClasses.add(new ClassNode("edu.hm.hafner.p" + t % (2 * packages) + ".Class" + t + "Test"));
+        }
+    }
+
+    /**
+     * Maps the test classes with the former implementation.
+     *
+     * @return the coverage tree
+     */
+    @Benchmark
+    public Node mapWithTreeSearch() {
+        var unmappedNodes = coverageTree.mergeTests(testClasses);
+        for (ClassNode classNode : unmappedNodes) {
+            var packageName = PackageNode.normalizePackageName(classNode.getPackageName());
+            coverageTree.findPackage(packageName).orElseGet(() -> {
+                var packageNode = new PackageNode(packageName);
+                coverageTree.addChild(packageNode);
+                return packageNode;
+            }).addChild(classNode);
+        }
+        return coverageTree;
+    }
+
+    /**
+     * Maps the test classes with the {@link TestClassMapper}.
+     *
+     * @return the coverage tree
+     */
+    @Benchmark
+    public Node mapWithPackageIndex() {
+        new TestClassMapper().mapTests(coverageTree, testClasses);
+        return coverageTree;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TestClassMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package io.jenkins.plugins.coverage.metrics.steps;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.ClassNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.PackageNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TestClassMapperTest {
+    @Test
+    void shouldAddTestClassesToExistingPackages() {
+        var module = new ModuleNode("module");
+        var existing = new PackageNode("edu.hm.hafner");
+        module.addChild(existing);
+
+        var test = new ClassNode("edu.hm.hafner.MapperTest");
+        new TestClassMapper().mapTests(module, List.of(test));
+
+        assertThat(module.getChildren()).containsExactly(existing);
+        assertThat(existing.getChildren()).containsExactly(test);
+    }
+
+    @Test
+    void shouldCreateMissingPackagesOnce() {
+        var module = new ModuleNode("module");
+
+        var first = new ClassNode("edu.hm.hafner.FirstTest");
+        var second = new ClassNode("edu.hm.hafner.SecondTest");
+        var other = new ClassNode("edu.hm.other.OtherTest");
+        new TestClassMapper().mapTests(module, List.of(first, other, second));
+
+        assertThat(module.getChildren()).hasOnlyElementsOfType(PackageNode.class)
+                .extracting(Node::getName).containsExactly("edu.hm.hafner", "edu.hm.other");
+        assertThat(module.getChildren().get(0).getChildren()).containsExactly(first, second);
+        assertThat(module.getChildren().get(1).getChildren()).containsExactly(other);
+    }
+
+    @Test
+    void shouldUseFirstPackageInDepthFirstOrder() {
+        var root = new ModuleNode("root");
+        var firstModule = new ModuleNode("first");
+        var firstPackage = new PackageNode("edu.hm.hafner");
+        firstModule.addChild(firstPackage);
+        var secondModule = new ModuleNode("second");
+        var secondPackage = new PackageNode("edu.hm.hafner");
+        secondModule.addChild(secondPackage);
+        root.addChild(firstModule);
+        root.addChild(secondModule);
+
+        var test = new ClassNode("edu.hm.hafner.MapperTest");
+        new TestClassMapper().mapTests(root, List.of(test));
+
+        assertThat(firstPackage.getChildren()).containsExactly(test);
+        assertThat(secondPackage.getChildren()).isEmpty();
+    }
+
+    @Test
+    void shouldMapTestClassesOfExistingAndMissingPackages() {
+        var module = new ModuleNode("module");
+        for (int p = 0; p < 5; p++) {
+            module.addChild(new PackageNode("edu.hm.hafner.p" + p));
+        }
+        List<ClassNode> tests = new ArrayList<>();
+        for (int t = 0; t < 50; t++) {
+            tests.add(new ClassNode("edu.hm.hafner.p" + t % 10 + ".Class" + t + "Test"));
+        }
+
+        new TestClassMapper().mapTests(module, tests);
+
+        assertThat(module.getChildren()).hasSize(10).allSatisfy(
+                packageNode -> assertThat(packageNode.getChildren()).hasSize(5));
+        assertThat(module.getAllClassNodes()).hasSize(50);
+    }
+}